@@ -0,0 +1,202 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package api;
+
+import applications.euclideantsp.JobEuclideanTsp;
+import applications.euclideantsp.TaskTspEuclidean;
+import applications.mandelbrotset.JobMandelbrotSet;
+import applications.mandelbrotset.ResultValueMandelbrotSet;
+import applications.mandelbrotset.TaskMandelbrotSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Microbenchmark: wire size and serialize + deserialize time of the 
+ * Externalizable Tasks and Results versus the default-serialized forms 
+ * they replaced, reproduced here as Legacy classes with the same fields.
+ * Each object is written by a fresh ObjectOutputStream, as a one-Task RMI call would.
+ * <p>
+ * Usage: java api.SerializationBenchmark [numRoundTrips]
+ * @author Peter Cappello
+ */
+public class SerializationBenchmark 
+{
+    static final private int NUM_TRIALS = 5;
+    
+    public static void main( String[] args ) throws Exception
+    {
+        final int numRoundTrips = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1000;
+        final TaskMandelbrotSet taskMandelbrotSet = new TaskMandelbrotSet( JobMandelbrotSet.LOWER_LEFT_X, 
+                JobMandelbrotSet.LOWER_LEFT_Y, JobMandelbrotSet.EDGE_LENGTH / 4, JobMandelbrotSet.BLOCK_SIZE, 
+                JobMandelbrotSet.ITERATION_LIMIT, 0, 0 );
+        final ResultValueMandelbrotSet mandelbrotSetValue = taskMandelbrotSet.call();
+        final List<Integer> partialCityList = new LinkedList<>();
+        for ( int city = 2; city < JobEuclideanTsp.CITIES.length; city++ )
+        {
+            partialCityList.add( city );
+        }
+        final TaskTspEuclidean taskTsp = new TaskTspEuclidean( JobEuclideanTsp.INSTANCE, 1, partialCityList );
+        final List<Integer> tour = taskTsp.call();
+        
+        System.out.printf( "%d round trips: bytes, microseconds / round trip (best of %d)%n", numRoundTrips, NUM_TRIALS );
+        System.out.printf( "%-28s %10s %10s %10s %10s%n", "", "legacy", "compact", "legacy", "compact" );
+        compare( "TaskMandelbrotSet", numRoundTrips, 
+                new LegacyTaskMandelbrotSet( JobMandelbrotSet.LOWER_LEFT_X, JobMandelbrotSet.LOWER_LEFT_Y, 
+                        JobMandelbrotSet.EDGE_LENGTH / 4, JobMandelbrotSet.BLOCK_SIZE, JobMandelbrotSet.ITERATION_LIMIT, 0, 0 ),
+                taskMandelbrotSet );
+        compare( "Result<MandelbrotSet>", Math.max( 1, numRoundTrips / 10 ),
+                new LegacyResult<>( new LegacyResultValueMandelbrotSet( boxed( mandelbrotSetValue ), 0, 0 ), 1L ),
+                new Result<>( mandelbrotSetValue, 1L ) );
+        compare( "TaskTspEuclidean", numRoundTrips, 
+                new LegacyTaskTspEuclidean( 1, partialCityList ), taskTsp );
+        compare( "Result<List<Integer>>", numRoundTrips, 
+                new LegacyResult<>( new LinkedList<>( tour ), 1L ), new Result<>( tour, 1L ) );
+    }
+    
+    /**
+     * @return the counts as the Integer[ row ][ col ] array that ResultValueMandelbrotSet once held.
+     */
+    static private Integer[][] boxed( ResultValueMandelbrotSet resultValue )
+    {
+        final int numPixels = resultValue.numPixels();
+        final Integer[][] counts = new Integer[ numPixels ][ numPixels ];
+        for ( int row = 0; row < numPixels; row++ )
+            for ( int col = 0; col < numPixels; col++ )
+            {
+                counts[ row ][ col ] = resultValue.counts()[ row * numPixels + col ];
+            }
+        return counts;
+    }
+    
+    static private void compare( String name, int numRoundTrips, Object legacy, Object compact ) throws Exception
+    {
+        long legacyTime = Long.MAX_VALUE, compactTime = Long.MAX_VALUE;
+        for ( int trial = 0; trial < NUM_TRIALS; trial++ )
+        {
+            legacyTime  = Math.min( legacyTime,  roundTrips( legacy,  numRoundTrips ) );
+            compactTime = Math.min( compactTime, roundTrips( compact, numRoundTrips ) );
+        }
+        System.out.printf( "%-28s %10d %10d %10.1f %10.1f%n", name, 
+                serialize( legacy ).length, serialize( compact ).length,
+                legacyTime / 1000.0 / numRoundTrips, compactTime / 1000.0 / numRoundTrips );
+    }
+    
+    /**
+     * @return elapsed nanoseconds to serialize and deserialize object numRoundTrips times.
+     */
+    static private long roundTrips( Object object, int numRoundTrips ) throws Exception
+    {
+        final long startTime = System.nanoTime();
+        for ( int i = 0; i < numRoundTrips; i++ )
+        {
+            deserialize( serialize( object ) );
+        }
+        return System.nanoTime() - startTime;
+    }
+    
+    static private byte[] serialize( Object object ) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( object );
+        }
+        return bytes.toByteArray();
+    }
+    
+    static private Object deserialize( byte[] bytes ) throws IOException, ClassNotFoundException
+    {
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes ) ) )
+        {
+            return in.readObject();
+        }
+    }
+    
+    static private class LegacyResult<T> implements Serializable
+    {
+        private final T taskReturnValue;
+        private final long taskRunTime;
+        
+        LegacyResult( T taskReturnValue, long taskRunTime )
+        {
+            this.taskReturnValue = taskReturnValue;
+            this.taskRunTime = taskRunTime;
+        }
+    }
+    
+    static private class LegacyResultValueMandelbrotSet implements Serializable
+    {
+        private final Integer[][] counts;
+        private final int blockRow;
+        private final int blockCol;
+        
+        LegacyResultValueMandelbrotSet( Integer[][] counts, int blockRow, int blockCol )
+        {
+            this.counts = counts;
+            this.blockRow = blockRow;
+            this.blockCol = blockCol;
+        }
+    }
+    
+    static private class LegacyTaskMandelbrotSet implements Serializable
+    {
+        private final double lowerLeftX;
+        private final double lowerLeftY;
+        private final double edgeLength;
+        private final int numPixels;
+        private final int iterationLimit;
+        private final int blockRow;
+        private final int blockCol;
+        
+        LegacyTaskMandelbrotSet( double lowerLeftX, double lowerLeftY, double edgeLength, int numPixels, int iterationLimit, int blockRow, int blockCol )
+        {
+            this.lowerLeftX = lowerLeftX;
+            this.lowerLeftY = lowerLeftY;
+            this.edgeLength = edgeLength;
+            this.numPixels = numPixels;
+            this.iterationLimit = iterationLimit;
+            this.blockRow = blockRow;
+            this.blockCol = blockCol;
+        }
+    }
+    
+    static private class LegacyTaskTspEuclidean implements Serializable
+    {
+        private final int secondCity;
+        private final List<Integer> partialCityList;
+        
+        LegacyTaskTspEuclidean( int secondCity, List<Integer> partialCityList )
+        {
+            this.secondCity = secondCity;
+            this.partialCityList = new ArrayList<>( partialCityList );
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+/**
+ * Microbenchmark: the work and load balance of JobMandelbrotSet's image,
+ * for several block sizes, computing each block outright with a Kernel 
+ * versus by TaskMandelbrotSet's border tracing.
+ * For each, it reports the total and the largest block time, the latter 
+ * bounding the Job's time however many Computers there are,
+ * and the number of pixels whose traced count differs from the outright count.
+ * <p>
+ * Usage: java applications.mandelbrotset.DecompositionBenchmark [numTrials]
+ * @author Peter Cappello
+ */
+public class DecompositionBenchmark 
+{
+    static final private int[] BLOCK_SIZES = { 256, 128, 64, 32 };
+    
+    public static void main( String[] args )
+    {
+        final int numTrials = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 3;
+        final int numPixels = JobMandelbrotSet.N_PIXELS;
+        System.out.printf( "%d X %d pixels, iteration limit %d, kernel %s: ms (best of %d)%n", 
+                numPixels, numPixels, JobMandelbrotSet.ITERATION_LIMIT, Kernel.LANES, numTrials );
+        System.out.printf( "%10s %8s %14s %14s %14s %14s %10s%n", "block size", "blocks", 
+                "outright total", "outright max", "traced total", "traced max", "differ" );
+        for ( int blockSize : BLOCK_SIZES )
+        {
+            final int numBlocks = numPixels / blockSize;
+            final double edgeLength = JobMandelbrotSet.EDGE_LENGTH / numBlocks;
+            long outrightTotal = Long.MAX_VALUE, outrightMax = Long.MAX_VALUE, tracedTotal = Long.MAX_VALUE, tracedMax = Long.MAX_VALUE;
+            int numDiffer = 0;
+            for ( int trial = 0; trial < numTrials; trial++ )
+            {
+                long outrightSum = 0, outrightLargest = 0, tracedSum = 0, tracedLargest = 0;
+                numDiffer = 0;
+                for ( int blockRow = 0; blockRow < numBlocks; blockRow++ )
+                    for ( int blockCol = 0; blockCol < numBlocks; blockCol++ )
+                    {
+                        final double lowerLeftX = JobMandelbrotSet.LOWER_LEFT_X + edgeLength * blockRow;
+                        final double lowerLeftY = JobMandelbrotSet.LOWER_LEFT_Y + edgeLength * blockCol;
+                        long startTime = System.nanoTime();
+                        final int[] outright = new int[ blockSize * blockSize ];
+                        Kernel.LANES.counts( lowerLeftX, lowerLeftY, edgeLength / blockSize, blockSize, JobMandelbrotSet.ITERATION_LIMIT, outright );
+                        long time = System.nanoTime() - startTime;
+                        outrightSum += time;
+                        outrightLargest = Math.max( outrightLargest, time );
+                        
+                        startTime = System.nanoTime();
+                        final int[] traced = new TaskMandelbrotSet( lowerLeftX, lowerLeftY, edgeLength, blockSize, 
+                                JobMandelbrotSet.ITERATION_LIMIT, blockRow, blockCol, Kernel.LANES ).call().counts();
+                        time = System.nanoTime() - startTime;
+                        tracedSum += time;
+                        tracedLargest = Math.max( tracedLargest, time );
+                        for ( int i = 0; i < outright.length; i++ )
+                        {
+                            numDiffer += outright[ i ] == traced[ i ] ? 0 : 1;
+                        }
+                    }
+                outrightTotal = Math.min( outrightTotal, outrightSum );
+                outrightMax   = Math.min( outrightMax,   outrightLargest );
+                tracedTotal   = Math.min( tracedTotal,   tracedSum );
+                tracedMax     = Math.min( tracedMax,     tracedLargest );
+            }
+            System.out.printf( "%10d %8d %14d %14d %14d %14d %10d%n", blockSize, numBlocks * numBlocks, 
+                    outrightTotal / 1000000, outrightMax / 1000000, tracedTotal / 1000000, tracedMax / 1000000, numDiffer );
+        }
+    }
+}
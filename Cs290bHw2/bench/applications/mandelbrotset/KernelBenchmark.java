@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import util.Complex;
+
+/**
+ * Microbenchmark: single-core pixels / second of each Kernel, and of the 
+ * util.Complex loop that they replaced, over JobMandelbrotSet's view and
+ * over a high-iteration view of the whole set, computed in BLOCK_SIZE blocks.
+ * The Kernels' counts are compared with the Complex loop's.
+ * <p>
+ * Usage: java applications.mandelbrotset.KernelBenchmark [numTrials]
+ * @author Peter Cappello
+ */
+public class KernelBenchmark 
+{
+    public static void main( String[] args )
+    {
+        final int numTrials = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 5;
+        benchmark( "JobMandelbrotSet view", JobMandelbrotSet.LOWER_LEFT_X, JobMandelbrotSet.LOWER_LEFT_Y, 
+                JobMandelbrotSet.EDGE_LENGTH, JobMandelbrotSet.N_PIXELS, JobMandelbrotSet.ITERATION_LIMIT, numTrials );
+        benchmark( "whole set", -2.0, -1.25, 2.5, 512, 8192, numTrials );
+    }
+    
+    static private void benchmark( String name, double lowerLeftX, double lowerLeftY, double edgeLength, 
+                                   int numPixels, int iterationLimit, int numTrials )
+    {
+        final int blockSize = JobMandelbrotSet.BLOCK_SIZE;
+        final int numBlocks = numPixels / blockSize;
+        final double blockEdgeLength = edgeLength / numBlocks;
+        final double delta = blockEdgeLength / blockSize;
+        final int[] expected = new int[ numPixels * numPixels ];
+        final int[] counts = new int[ blockSize * blockSize ];
+        System.out.printf( "%s: %d X %d pixels, iteration limit %d: megapixels / second (best of %d), pixels that differ%n", 
+                name, numPixels, numPixels, iterationLimit, numTrials );
+        
+        long best = Long.MAX_VALUE;
+        for ( int trial = 0; trial < numTrials; trial++ )
+        {
+            final long startTime = System.nanoTime();
+            for ( int block = 0; block < numBlocks * numBlocks; block++ )
+            {
+                complexCounts( lowerLeftX + blockEdgeLength * ( block / numBlocks ), 
+                               lowerLeftY + blockEdgeLength * ( block % numBlocks ), delta, blockSize, iterationLimit, counts );
+                System.arraycopy( counts, 0, expected, block * counts.length, counts.length );
+            }
+            best = Math.min( best, System.nanoTime() - startTime );
+        }
+        System.out.printf( "%-16s %8.2f%n", "Complex", expected.length * 1000.0 / best );
+        
+        for ( Kernel kernel : Kernel.values() )
+        {
+            best = Long.MAX_VALUE;
+            int numDiffer = 0;
+            for ( int trial = 0; trial < numTrials; trial++ )
+            {
+                numDiffer = 0;
+                final long startTime = System.nanoTime();
+                for ( int block = 0; block < numBlocks * numBlocks; block++ )
+                {
+                    kernel.counts( lowerLeftX + blockEdgeLength * ( block / numBlocks ), 
+                                   lowerLeftY + blockEdgeLength * ( block % numBlocks ), delta, 
+                                   blockSize, iterationLimit, counts );
+                    for ( int i = 0; i < counts.length; i++ )
+                    {
+                        numDiffer += counts[ i ] == expected[ block * counts.length + i ] ? 0 : 1;
+                    }
+                }
+                best = Math.min( best, System.nanoTime() - startTime );
+            }
+            System.out.printf( "%-16s %8.2f %8d%n", kernel, expected.length * 1000.0 / best, numDiffer );
+        }
+    }
+    
+    static private void complexCounts( double lowerLeftX, double lowerLeftY, double delta, int numPixels, int iterationLimit, int[] counts )
+    {
+        for ( int row = 0; row < numPixels; row++ )
+            for ( int col = 0; col < numPixels; col++ )
+            {
+                final Complex c = new Complex( lowerLeftX + row * delta, lowerLeftY + col * delta );
+                int iteration = 0;
+                for ( Complex z = new Complex( c ); z.sizeSquared() <= 4.0 && iteration < iterationLimit; iteration++ ) 
+                {
+                    z.square().add( c );
+                }
+                counts[ row * numPixels + col ] = iteration;
+            }
+    }
+}
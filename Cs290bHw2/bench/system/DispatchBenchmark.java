@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Microbenchmark: Task dispatch throughput of the work-stealing Scheduler
+ * versus the single shared LinkedBlockingQueue it replaced, as the number 
+ * of Computers grows. A producer puts Tasks in chunks, as putAll does; 
+ * each simulated Computer has PIPELINE_DEPTH dispatcher threads, each 
+ * taking batches of BATCH_SIZE Tasks. Task execution is not simulated: 
+ * The benchmark measures the queueing structure alone.
+ * <p>
+ * Usage: java system.DispatchBenchmark [numTasks]
+ * @author Peter Cappello
+ */
+public class DispatchBenchmark 
+{
+    static final private int[] NUM_COMPUTERS = { 1, 2, 4, 8, 16, 32 };
+    static final private int CHUNK_SIZE = 1000;
+    static final private int NUM_TRIALS = 5;
+    
+    public static void main( String[] args ) throws Exception
+    {
+        final int numTasks = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1000000;
+        final List<TaskEntry> taskEntries = new ArrayList<>( numTasks );
+        for ( int i = 0; i < numTasks; i++ )
+        {
+            taskEntries.add( new TaskEntry( null, null ) );
+        }
+        System.out.printf( "%d tasks, batch size %d, pipeline depth %d: tasks / ms (best of %d)%n", 
+                numTasks, SpaceImpl.BATCH_SIZE, SpaceImpl.PIPELINE_DEPTH, NUM_TRIALS );
+        System.out.printf( "%10s %14s %14s%n", "computers", "shared queue", "work stealing" );
+        for ( int numComputers : NUM_COMPUTERS )
+        {
+            long sharedQueue = Long.MAX_VALUE, workStealing = Long.MAX_VALUE;
+            for ( int trial = 0; trial < NUM_TRIALS; trial++ )
+            {
+                sharedQueue  = Math.min( sharedQueue,  sharedQueue( taskEntries, numComputers ) );
+                workStealing = Math.min( workStealing, workStealing( taskEntries, numComputers ) );
+            }
+            System.out.printf( "%10d %14d %14d%n", numComputers, 
+                    numTasks * 1000000L / sharedQueue, numTasks * 1000000L / workStealing );
+        }
+    }
+    
+    /**
+     * @return elapsed nanoseconds to dispatch every Task.
+     */
+    static private long sharedQueue( List<TaskEntry> taskEntries, int numComputers ) throws InterruptedException
+    {
+        final BlockingQueue<TaskEntry> taskQ = new LinkedBlockingQueue<>();
+        final AtomicInteger numTaken = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch( numComputers * SpaceImpl.PIPELINE_DEPTH );
+        final Runnable dispatcher = () -> 
+        {
+            final List<TaskEntry> batch = new ArrayList<>( SpaceImpl.BATCH_SIZE );
+            while ( numTaken.get() < taskEntries.size() )
+            {
+                try 
+                {
+                    final TaskEntry taskEntry = taskQ.poll( 1, TimeUnit.MILLISECONDS );
+                    if ( taskEntry != null )
+                    {
+                        batch.add( taskEntry );
+                        taskQ.drainTo( batch, SpaceImpl.BATCH_SIZE - 1 );
+                        numTaken.addAndGet( batch.size() );
+                        batch.clear();
+                    }
+                } 
+                catch ( InterruptedException ignore ) {}
+            }
+            done.countDown();
+        };
+        return run( dispatcher, numComputers, done, chunk -> taskQ.addAll( chunk ), taskEntries );
+    }
+    
+    /**
+     * @return elapsed nanoseconds to dispatch every Task.
+     */
+    static private long workStealing( List<TaskEntry> taskEntries, int numComputers ) throws InterruptedException
+    {
+        final Scheduler scheduler = new Scheduler();
+        final AtomicInteger numTaken = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch( numComputers * SpaceImpl.PIPELINE_DEPTH );
+        final List<BlockingDeque<TaskEntry>> deques = new ArrayList<>();
+        for ( int i = 0; i < numComputers; i++ )
+        {
+            deques.add( scheduler.newDeque() );
+        }
+        final AtomicInteger nextDeque = new AtomicInteger();
+        final Runnable dispatcher = () -> 
+        {
+            final BlockingDeque<TaskEntry> deque = deques.get( nextDeque.getAndIncrement() / SpaceImpl.PIPELINE_DEPTH );
+            final List<TaskEntry> batch = new ArrayList<>( SpaceImpl.BATCH_SIZE );
+            while ( numTaken.get() < taskEntries.size() )
+            {
+                try 
+                {
+                    final TaskEntry taskEntry = scheduler.take( deque, 1 );
+                    if ( taskEntry != null )
+                    {
+                        batch.add( taskEntry );
+                        scheduler.drainTo( deque, batch, SpaceImpl.BATCH_SIZE - 1 );
+                        numTaken.addAndGet( batch.size() );
+                        batch.clear();
+                    }
+                } 
+                catch ( InterruptedException ignore ) {}
+            }
+            done.countDown();
+        };
+        return run( dispatcher, numComputers, done, chunk -> scheduler.putAll( chunk ), taskEntries );
+    }
+    
+    static private long run( Runnable dispatcher, int numComputers, CountDownLatch done, 
+                             java.util.function.Consumer<List<TaskEntry>> putAll, 
+                             List<TaskEntry> taskEntries ) throws InterruptedException
+    {
+        final long startTime = System.nanoTime();
+        for ( int i = 0; i < numComputers * SpaceImpl.PIPELINE_DEPTH; i++ )
+        {
+            new Thread( dispatcher ).start();
+        }
+        for ( int i = 0; i < taskEntries.size(); i += CHUNK_SIZE )
+        {
+            putAll.accept( taskEntries.subList( i, Math.min( i + CHUNK_SIZE, taskEntries.size() ) ) );
+        }
+        done.await();
+        return System.nanoTime() - startTime;
+    }
+}
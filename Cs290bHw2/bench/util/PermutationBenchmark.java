@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Microbenchmark: permutations / second, and bytes allocated per permutation, 
+ * of Permutation.next, Permutation1.iterate, and IntPermutation.forEach, 
+ * enumerating the permutations of 0, ..., n - 1.
+ * Each visits every permutation, summing a hash of it, so that none is optimized away.
+ * Allocation is measured only on JVMs whose ThreadMXBean reports it.
+ * <p>
+ * Usage: java util.PermutationBenchmark [n [numTrials]]
+ * @author Peter Cappello
+ */
+public class PermutationBenchmark 
+{
+    private interface Enumeration { long run( int n ); }
+    
+    public static void main( String[] args )
+    {
+        final int n = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 10;
+        final int numTrials = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 5;
+        long numPermutations = 1;
+        for ( int i = 2; i <= n; i++ )
+        {
+            numPermutations *= i;
+        }
+        System.out.printf( "%d! = %d permutations: millions / second (best of %d), bytes allocated / permutation, checksum%n", 
+                n, numPermutations, numTrials );
+        benchmark( "Permutation", PermutationBenchmark::permutation, n, numPermutations, numTrials );
+        benchmark( "Permutation1", PermutationBenchmark::permutation1, n, numPermutations, numTrials );
+        benchmark( "IntPermutation", PermutationBenchmark::intPermutation, n, numPermutations, numTrials );
+    }
+    
+    static private void benchmark( String name, Enumeration enumeration, int n, long numPermutations, int numTrials )
+    {
+        long best = Long.MAX_VALUE;
+        long bytes = 0;
+        long checksum = 0;
+        for ( int trial = 0; trial < numTrials; trial++ )
+        {
+            final long startBytes = allocatedBytes();
+            final long startTime = System.nanoTime();
+            checksum = enumeration.run( n );
+            best = Math.min( best, System.nanoTime() - startTime );
+            bytes = allocatedBytes() - startBytes;
+        }
+        System.out.printf( "%-16s %8.2f %8.1f %20d%n", name, numPermutations * 1000.0 / best, 
+                (double) bytes / numPermutations, checksum );
+    }
+    
+    static private long permutation( int n )
+    {
+        final Permutation<Integer> permutation = new Permutation<>( list( n ) );
+        long checksum = 0;
+        for ( List<Integer> next = permutation.next(); next != null; next = permutation.next() )
+        {
+            checksum += hash( next );
+        }
+        return checksum;
+    }
+    
+    static private long permutation1( int n )
+    {
+        final long[] checksum = { 0 };
+        Permutation1.iterate( list( n ), 0, permutation -> checksum[ 0 ] += hash( permutation ) );
+        return checksum[ 0 ];
+    }
+    
+    static private long intPermutation( int n )
+    {
+        final int[] elements = new int[ n ];
+        for ( int i = 0; i < n; i++ )
+        {
+            elements[ i ] = i;
+        }
+        final long[] checksum = { 0 };
+        IntPermutation.forEach( elements, permutation -> 
+        {
+            long hash = 0;
+            for ( int element : permutation )
+            {
+                hash = 31 * hash + element;
+            }
+            checksum[ 0 ] += hash;
+        } );
+        return checksum[ 0 ];
+    }
+    
+    static private List<Integer> list( int n )
+    {
+        final List<Integer> list = new ArrayList<>( n );
+        for ( int i = 0; i < n; i++ )
+        {
+            list.add( i );
+        }
+        return list;
+    }
+    
+    static private long hash( List<Integer> permutation )
+    {
+        long hash = 0;
+        for ( int i = 0; i < permutation.size(); i++ )
+        {
+            hash = 31 * hash + permutation.get( i );
+        }
+        return hash;
+    }
+    
+    static private long allocatedBytes()
+    {
+        if ( ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean )
+        {
+            return ( (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() )
+                    .getThreadAllocatedBytes( Thread.currentThread().getId() );
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package api;
+
+import applications.euclideantsp.JobEuclideanTsp;
+import applications.euclideantsp.TaskTspHeuristic;
+import applications.mandelbrotset.JobMandelbrotSet;
+import applications.mandelbrotset.ResultValueMandelbrotSet;
+import applications.mandelbrotset.TaskMandelbrotSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH: the time of a serialize + deserialize round trip of a Result of each application: 
+ * the iteration counts of a BLOCK_SIZE block of JobMandelbrotSet's view, and a tour of the CITIES instance.
+ * Each Result is written by a fresh ObjectOutputStream, as a one-Result RMI return would be.
+ * <p>
+ * Usage: ant myjmh -Djmh.args=ResultSerializationBenchmark
+ * @author Peter Cappello
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class ResultSerializationBenchmark 
+{
+    private Result<ResultValueMandelbrotSet> mandelbrotSetResult;
+    private Result<List<Integer>> tourResult;
+    
+    @Setup
+    public void setup()
+    {
+        final int numBlocks = JobMandelbrotSet.N_PIXELS / JobMandelbrotSet.BLOCK_SIZE;
+        final TaskMandelbrotSet taskMandelbrotSet = new TaskMandelbrotSet( JobMandelbrotSet.LOWER_LEFT_X, 
+                JobMandelbrotSet.LOWER_LEFT_Y, JobMandelbrotSet.EDGE_LENGTH / numBlocks, JobMandelbrotSet.BLOCK_SIZE, 
+                JobMandelbrotSet.ITERATION_LIMIT, 0, 0 );
+        mandelbrotSetResult = new Result<>( taskMandelbrotSet.call(), 1L );
+        tourResult = new Result<>( new TaskTspHeuristic( JobEuclideanTsp.INSTANCE, 0 ).call(), 1L );
+    }
+    
+    @Benchmark
+    public Object mandelbrotSet() throws IOException, ClassNotFoundException 
+    { 
+        return roundTrip( mandelbrotSetResult ); 
+    }
+    
+    @Benchmark
+    public Object tour() throws IOException, ClassNotFoundException { return roundTrip( tourResult ); }
+    
+    static private Object roundTrip( final Object object ) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( object );
+        }
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            return in.readObject();
+        }
+    }
+}
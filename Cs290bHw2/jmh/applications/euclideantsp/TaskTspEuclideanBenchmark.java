@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH: the time of TaskTspEuclidean.call, for second city 1 of a random instance, 
+ * without an upper bound, and with the length of a TaskTspHeuristic's tour as its bound, 
+ * as JobEuclideanTsp's exhaustive search gives it.
+ * The instance's distances are built in setup, as a Computer's are, once per job.
+ * <p>
+ * Usage: ant myjmh -Djmh.args=TaskTspEuclideanBenchmark
+ * @author Peter Cappello
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class TaskTspEuclideanBenchmark 
+{
+    @Param( { "10", "12" } )
+    public int numCities;
+    
+    @Param( { "false", "true" } )
+    public boolean isSeeded;
+    
+    private TaskTspEuclidean task;
+    
+    @Setup
+    public void setup()
+    {
+        final TspInstance instance = new TspInstance( numCities + " random cities", 
+                JobEuclideanTsp.randomCities( numCities, numCities ), false );
+        instance.distances().rows();
+        final List<Integer> partialCityList = new ArrayList<>();
+        for ( int city = 2; city < numCities; city++ )
+        {
+            partialCityList.add( city );
+        }
+        final double upperBound = isSeeded 
+                ? instance.distances().tourDistance( new TaskTspHeuristic( instance, 0 ).call() ) 
+                : Double.MAX_VALUE;
+        task = new TaskTspEuclidean( instance, 1, partialCityList, upperBound );
+    }
+    
+    @Benchmark
+    public List<Integer> call() { return task.call(); }
+}
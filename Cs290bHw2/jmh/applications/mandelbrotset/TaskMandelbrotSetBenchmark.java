@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH: the time of TaskMandelbrotSet.call, by each Kernel, for the whole of 
+ * JobMandelbrotSet's view, at N_PIXELS / PREVIEW_SCALE pixels on an edge, as its preview task computes it.
+ * <p>
+ * Usage: ant myjmh -Djmh.args=TaskMandelbrotSetBenchmark
+ * @author Peter Cappello
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class TaskMandelbrotSetBenchmark 
+{
+    @Param( { "SCALAR", "LANES" } )
+    public Kernel kernel;
+    
+    @Param( { "512", "4096" } )
+    public int iterationLimit;
+    
+    private TaskMandelbrotSet task;
+    
+    @Setup
+    public void setup()
+    {
+        task = new TaskMandelbrotSet( JobMandelbrotSet.LOWER_LEFT_X, JobMandelbrotSet.LOWER_LEFT_Y, 
+                JobMandelbrotSet.EDGE_LENGTH, JobMandelbrotSet.N_PIXELS / JobMandelbrotSet.PREVIEW_SCALE, 
+                iterationLimit, 0, 0, kernel );
+    }
+    
+    @Benchmark
+    public ResultValueMandelbrotSet call() { return task.call(); }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import api.Result;
+import api.Task;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH: Tasks / millisecond through a SpaceImpl: putAll NUM_TASKS trivial Tasks, 
+ * then take their Results, with numComputers in-process ComputerImpls of one worker each.
+ * The Tasks do no work, so this measures dispatch, batching, and result delivery.
+ * Each trial ends by shutting the Space and Computers down, rather than exiting them, 
+ * since their exits exit the JVM: Their threads otherwise keep the forked JVM alive.
+ * <p>
+ * Usage: ant myjmh -Djmh.args=SpaceThroughputBenchmark
+ * @author Peter Cappello
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class SpaceThroughputBenchmark 
+{
+    static final public int NUM_TASKS = 10000;
+    
+    @Param( { "1", "2", "4" } )
+    public int numComputers;
+    
+    private SpaceImpl space;
+    private List<ComputerImpl> computers;
+    private List<Task> taskList;
+    
+    /**
+     * A Task that returns its value.
+     */
+    static public class TaskIdentity implements Task<Integer>
+    {
+        private final int value;
+        
+        public TaskIdentity( final int value ) { this.value = value; }
+        
+        @Override
+        public Integer call() { return value; }
+    }
+    
+    @Setup
+    public void setup() throws RemoteException
+    {
+        space = new SpaceImpl();
+        computers = new ArrayList<>( numComputers );
+        for ( int i = 0; i < numComputers; i++ )
+        {
+            final ComputerImpl computer = new ComputerImpl( 1 );
+            computers.add( computer );
+            space.register( computer, 1 );
+        }
+        taskList = new ArrayList<>( NUM_TASKS );
+        for ( int i = 0; i < NUM_TASKS; i++ )
+        {
+            taskList.add( new TaskIdentity( i ) );
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation( NUM_TASKS )
+    public void putAllTake( final Blackhole blackhole ) throws RemoteException
+    {
+        space.putAll( taskList );
+        for ( int i = 0; i < NUM_TASKS; i++ )
+        {
+            final Result result = space.take();
+            blackhole.consume( result.getTaskReturnValue() );
+        }
+    }
+    
+    @TearDown
+    public void tearDown()
+    {
+        space.shutdown();
+        computers.forEach( computer -> computer.shutdown() );
+    }
+}
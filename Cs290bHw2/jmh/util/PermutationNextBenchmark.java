@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH: the time to enumerate every permutation of size elements, 
+ * by Permutation.next, which allocates a List per permutation, 
+ * and by IntPermutation.forEach, which permutes an int array in place.
+ * Neither enumerates tours now: TaskTspEuclidean extends its paths depth first, 
+ * pruning them against its bound.
+ * <p>
+ * Usage: ant myjmh -Djmh.args=PermutationNextBenchmark
+ * @author Peter Cappello
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class PermutationNextBenchmark 
+{
+    @Param( { "8", "10" } )
+    public int size;
+    
+    private List<Integer> list;
+    private int[] array;
+    
+    @Setup
+    public void setup()
+    {
+        list = new ArrayList<>( size );
+        array = new int[ size ];
+        for ( int i = 0; i < size; i++ )
+        {
+            list.add( i );
+            array[ i ] = i;
+        }
+    }
+    
+    @Benchmark
+    public void next( final Blackhole blackhole )
+    {
+        final Permutation<Integer> permutation = new Permutation<>( list );
+        for ( List<Integer> next = permutation.next(); next != null; next = permutation.next() )
+        {
+            blackhole.consume( next );
+        }
+    }
+    
+    @Benchmark
+    public void intPermutation( final Blackhole blackhole )
+    {
+        IntPermutation.forEach( array, blackhole::consume );
+    }
+}
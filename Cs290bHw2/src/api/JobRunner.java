@@ -34,8 +34,7 @@ import java.util.logging.Logger;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JScrollPane;
-import system.ComputerImpl;
-import system.SpaceImpl;
+import system.LocalSpace;
 
 /**
  * The class used to "run" the Job - primarily send the tasks to the Space
@@ -46,14 +45,15 @@ import system.SpaceImpl;
 public class JobRunner<T> extends JFrame 
 {
     final private Job<T> job;
-    final private Space  space;
+    final private Space  space; // the Job's handle
     final private long   startTime = System.nanoTime();
     
     /**
      *
      * @param job the Job to be run.
      * @param title the String to be displaced on the JPanel containing the JLabel.
-     * @param domainName of the Space to be used.
+     * @param domainName of the Space to be used. If empty, the Job runs in
+     * this JVM, on a LocalSpace.
      * @throws RemoteException occurs if there is a communication problem or
      * the remote service is not responding
      * @throws NotBoundException There is no Space service bound in the RMI registry.
@@ -66,32 +66,51 @@ public class JobRunner<T> extends JFrame
         setTitle( title );
         setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
         this.job = job;
+        space = space( domainName ).newJob( 1 );
+    }
+    
+    /**
+     * 
+     * @param domainName of the Space to be used. If empty, a new LocalSpace.
+     * @return the Space.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding
+     * @throws NotBoundException There is no Space service bound in the RMI registry.
+     * @throws MalformedURLException the URL provided for the Space RMI registry is malformed.
+     */
+    static public Space space( String domainName ) 
+           throws RemoteException, NotBoundException, MalformedURLException
+    {
         if ( domainName.isEmpty() ) 
         {
-            space = new SpaceImpl();
-            for ( int i = 0; i < Runtime.getRuntime().availableProcessors(); i++ ) 
-            {
-                space.register( new ComputerImpl() );
-            }
+            return new LocalSpace();
         } 
-        else 
-        {
-            final String url = "rmi://" + domainName + ":" + Space.PORT + "/" + Space.SERVICE_NAME;
-            space = (Space) Naming.lookup( url );
-        }
+        final String url = "rmi://" + domainName + ":" + Space.PORT + "/" + Space.SERVICE_NAME;
+        return (Space) Naming.lookup( url );
     }
     
     /**
      * Run the Job: Generate the tasks, retrieve the results, compose a solution
-     * to the original problem, and display the solution.
+     * to the original problem, and display the solution. 
+     * An IncrementalJob is displayed before its results are retrieved,
+     * and updates its display as they arrive.
      * @throws RemoteException occurs if there is a communication problem or
      * the remote service is not responding
      */
     public void run() throws RemoteException 
     {
+        final boolean isIncremental = job instanceof IncrementalJob;
+        if ( isIncremental )
+        {
+            view( ( (IncrementalJob<T>) job ).viewInProgress() );
+        }
         space.putAll( job.decompose() ); 
         job.compose( space );
-        view( job.viewResult(job.value() ) );
+        space.exit(); // close the job
+        if ( ! isIncremental )
+        {
+            view( job.viewResult(job.value() ) );
+        }
         Logger.getLogger( this.getClass().getCanonicalName() )
               .log( Level.INFO, "Job run time: {0} ms.", ( System.nanoTime() - startTime) / 1000000 );
     }
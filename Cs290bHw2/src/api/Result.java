@@ -23,19 +23,31 @@
  */
 package api;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
 /**
  * The result of executing a Task: Its execute methods return value,
  * and the elapsed time to execute the task, as seen by the Computer that
  * executed it.
+ * If the Task threw, the Result is failed: It holds what the Task threw, instead of a value.
+ * It is Externalizable: Its wire form is whether it is failed, then the return value, 
+ * or what the Task threw, in its own form, followed by the run time, without field descriptors.
  * @author Peter Cappello
  * @param <T> type of return value of corresponding Task.
  */
-public class Result<T> implements Serializable
+public class Result<T> implements Externalizable
 {
-    private final T taskReturnValue;
-    private final long taskRunTime;
+    private T taskReturnValue;
+    private Throwable taskException;
+    private long taskRunTime;
+    
+    /**
+     * For deserialization only.
+     */
+    public Result() {}
 
     /**
      *
@@ -51,11 +63,45 @@ public class Result<T> implements Serializable
         this.taskRunTime = taskRunTime;
     }
 
+    /**
+     * @param <T> type of return value of corresponding Task.
+     * @param taskException what the Task threw.
+     * @param taskRunTime the elapsed time to execute the task, 
+     * as seen by the Computer that executed it.
+     * @return a failed Result.
+     */
+    static public <T> Result<T> failed( Throwable taskException, long taskRunTime )
+    {
+        assert taskException != null;
+        final Result<T> result = new Result<>();
+        result.taskException = taskException;
+        result.taskRunTime = taskRunTime;
+        return result;
+    }
+
     /**
      * Get the Task execute method return value.
      * @return the Task execute method return value
+     * @throws IllegalStateException if the Task failed; its cause is what the Task threw.
      */
-    public T getTaskReturnValue() { return taskReturnValue; }
+    public T getTaskReturnValue() 
+    { 
+        if ( taskException != null )
+        {
+            throw new IllegalStateException( "Task failed.", taskException );
+        }
+        return taskReturnValue; 
+    }
+    
+    /**
+     * @return true if the Task threw, instead of returning a value.
+     */
+    public boolean isFailed() { return taskException != null; }
+    
+    /**
+     * @return what the Task threw; null if it did not fail.
+     */
+    public Throwable getTaskException() { return taskException; }
 
     /**
      * Get  elapsed time to execute the task, 
@@ -65,13 +111,43 @@ public class Result<T> implements Serializable
      */
     public long getTaskRunTime() { return taskRunTime; }
     
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException 
+    {
+        out.writeBoolean( isFailed() );
+        out.writeObject( isFailed() ? taskException : taskReturnValue );
+        out.writeLong( taskRunTime );
+    }
+    
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException 
+    {
+        if ( in.readBoolean() )
+        {
+            taskException = (Throwable) in.readObject();
+        }
+        else
+        {
+            taskReturnValue = (T) in.readObject();
+        }
+        taskRunTime = in.readLong();
+    }
+    
     @Override
     public String toString()
     {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append( getClass() );
         stringBuilder.append( "\n\tExecution time:\n\t" ).append( taskRunTime );
-        stringBuilder.append( "\n\tReturn value:\n\t" ).append( taskReturnValue.toString() );
+        if ( isFailed() )
+        {
+            stringBuilder.append( "\n\tFailed:\n\t" ).append( taskException.toString() );
+        }
+        else
+        {
+            stringBuilder.append( "\n\tReturn value:\n\t" ).append( taskReturnValue.toString() );
+        }
         return stringBuilder.toString();
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package api;
+
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A client-side stream of Results: 
+ * While open, it is the Space's ResultListener, buffering the Results 
+ * pushed to it, so that taking a Result is a local, not a remote, call.
+ * It is exported only if the Space is remote.
+ * @author Peter Cappello
+ */
+public class ResultStream implements ResultListener, AutoCloseable
+{
+    final private BlockingQueue<Result> resultQ = new LinkedBlockingQueue<>();
+    final private Space space;
+    final private boolean isExported;
+    
+    /**
+     * Open a stream of the Results of the given Space.
+     * @param space the Space whose Results are streamed.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    public ResultStream( Space space ) throws RemoteException
+    {
+        this.space = space;
+        isExported = Proxy.isProxyClass( space.getClass() ); // i.e., an RMI stub
+        space.addResultListener( isExported ? (ResultListener) UnicastRemoteObject.exportObject( this, 0 ) : this );
+    }
+    
+    @Override
+    public void accept( List<Result> resultList ) { resultQ.addAll( resultList ); }
+    
+    /**
+     * Take a Result, waiting until one has been pushed, if necessary.
+     * @return a Result.
+     */
+    public Result take() 
+    {
+        try { return resultQ.take(); } 
+        catch ( InterruptedException exception ) 
+        {
+            Logger.getLogger( this.getClass().getName())
+                  .log(Level.INFO, null, exception);
+        }
+        assert false; // should never reach this point
+        return null;
+    }
+    
+    /**
+     * Stop streaming: Results not yet pushed remain in the Space, 
+     * but those pushed and not taken are lost: They cannot be put back. 
+     * Take every Result awaited before closing.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    @Override
+    public void close() throws RemoteException
+    {
+        if ( isExported )
+        {
+            space.removeResultListener( (ResultListener) UnicastRemoteObject.toStub( this ) );
+            UnicastRemoteObject.unexportObject( this, true );
+        }
+        else
+        {
+            space.removeResultListener( this );
+        }
+        if ( ! resultQ.isEmpty() )
+        {
+            Logger.getLogger( this.getClass().getName() )
+                  .log( Level.WARNING, "Result stream closed: {0} results not taken are lost.", resultQ.size() );
+            resultQ.clear();
+        }
+    }
+}
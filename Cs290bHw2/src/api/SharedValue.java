@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * This JVM's copy of a named Shared value. 
+ * A Task reads it with get, a volatile read, cheap enough to do at every step of a search,
+ * and proposes improvements with propose: 
+ * An improvement is forwarded to the Space, which broadcasts it to every Computer.
+ * Copies on different Computers may briefly differ; each only gets better.
+ * A job should name its values uniquely, since copies are kept for the life of the JVM.
+ * @author Peter Cappello
+ */
+public final class SharedValue
+{
+    static final private Map<String,SharedValue> SHARED_VALUES = new ConcurrentHashMap<>();
+    volatile static private BiConsumer<String,Shared> forwarder;
+    
+    private final String name;
+    private final AtomicReference<Shared> shared = new AtomicReference<>();
+    
+    private SharedValue( final String name ) { this.name = name; }
+    
+    /**
+     * @param name the name of the shared value.
+     * @return this JVM's copy of the shared value, created, with no value, if necessary.
+     */
+    static public SharedValue of( final String name )
+    {
+        return SHARED_VALUES.computeIfAbsent( name, SharedValue::new );
+    }
+    
+    /**
+     * Set how improvements proposed in this JVM reach the Space: 
+     * by the Computer, when it registers.
+     * @param forwarder accepts the name and value of each improvement; it must not block.
+     */
+    static public void forwardTo( final BiConsumer<String,Shared> forwarder )
+    {
+        SharedValue.forwarder = forwarder;
+    }
+    
+    /**
+     * @return the current value; null if there is none.
+     */
+    public Shared get() { return shared.get(); }
+    
+    /**
+     * Replace the current value, if the proposed one is better, 
+     * and, if so, forward it to the Space.
+     * @param proposed the proposed value.
+     * @return true if proposed replaced the current value.
+     */
+    public boolean propose( final Shared proposed )
+    {
+        if ( ! update( proposed ) )
+        {
+            return false;
+        }
+        final BiConsumer<String,Shared> to = forwarder;
+        if ( to != null )
+        {
+            to.accept( name, proposed );
+        }
+        return true;
+    }
+    
+    /**
+     * Replace the current value, if the proposed one is better, without forwarding it:
+     * for values that come from the Space.
+     * @param proposed the proposed value.
+     * @return true if proposed replaced the current value.
+     */
+    public boolean update( final Shared proposed )
+    {
+        for ( Shared current = shared.get(); proposed.isBetterThan( current ); current = shared.get() )
+        {
+            if ( shared.compareAndSet( current, proposed ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public String toString() { return "SharedValue{ " + name + ": " + shared.get() + '}'; }
+}
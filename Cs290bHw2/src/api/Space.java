@@ -63,7 +63,66 @@ public interface Space extends Remote
     Result take() throws RemoteException;
 
     /**
-     *
+     * Take (i.e., remove and return) up to maxResults results from the result 
+     * queue. Waits up to timeout milliseconds for a first result to arrive;
+     * does not wait for more than that one.
+     * @param maxResults the maximum number of results returned.
+     * @param timeout the maximum time, in milliseconds, to wait for a result.
+     * @return the removed results; empty if the timeout elapsed first.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    List<Result> take( int maxResults, long timeout ) throws RemoteException;
+
+    /**
+     * Push results to a listener, as they are produced, instead of holding
+     * them to be taken. Replaces the current listener, if any.
+     * Results that the listener fails to accept are returned to the result queue.
+     * @param listener the remote ResultListener.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    void addResultListener( ResultListener listener ) throws RemoteException;
+    
+    /**
+     * Stop pushing results to a listener. Subsequent results are held
+     * in the result queue.
+     * @param listener the remote ResultListener.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    void removeResultListener( ResultListener listener ) throws RemoteException;
+
+    /**
+     * Propose a value for the named Shared object: If it is better than the 
+     * current value, it replaces it, and is broadcast to every Computer, 
+     * where the SharedValue of that name is updated. 
+     * Computers that register later receive the current values.
+     * A value shared through a job's handle is the job's: 
+     * The Space drops it when the job closes.
+     * @param name the name of the shared value.
+     * @param shared the proposed value.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    void share( String name, Shared shared ) throws RemoteException;
+
+    /**
+     * Open a job: The returned Space is the job's handle. The Tasks put into
+     * it share the Computers with other jobs' Tasks, in proportion to the 
+     * jobs' weights; only the job's own results can be taken from it.
+     * Its exit method closes the job, not the Space.
+     * @param weight the job's share of the Computers, relative to the weights
+     * of the other open jobs.
+     * @return the job's handle.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    Space newJob( int weight ) throws RemoteException;
+    
+    /**
+     * Terminate the Space, or, if this is a job's handle, close the job,
+     * discarding its pending Tasks and results.
      * @throws RemoteException occurs if there is a communication problem or
      * the remote service is not responding.
      */
@@ -73,8 +132,10 @@ public interface Space extends Remote
      *
      * @param computer a remote reference to a Computer that is requesting
      * participation as a worker.
+     * @param numWorkers the number of Tasks the Computer executes concurrently.
+     * The Space keeps at least this many Tasks outstanding on the Computer.
      * @throws RemoteException occurs if there is a communication problem or
      * the remote service is not responding.
      */
-    void register( Computer computer ) throws RemoteException;
+    void register( Computer computer, int numWorkers ) throws RemoteException;
 }
@@ -0,0 +1,62 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package api;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * What a Task returns, instead of its value, to divide: child Tasks, 
+ * and a Successor that composes their values into the Task's value.
+ * The Space schedules the children; when the last of their values arrives,
+ * it schedules the Successor, whose value it delivers as the Task's. 
+ * Children may spawn in turn. A Task that may spawn is declared Task&lt;Object&gt;.
+ * @author Peter Cappello
+ */
+public final class Spawn implements Serializable
+{
+    private final List<Task> children;
+    private final Successor successor;
+    
+    /**
+     * @param children the child Tasks; if there are none, the Successor composes 
+     * an empty list.
+     * @param successor composes the children's values, in the order of children.
+     */
+    public Spawn( final List<Task> children, final Successor successor )
+    {
+        this.children = children;
+        this.successor = successor;
+    }
+    
+    public List<Task> children() { return children; }
+    
+    public Successor successor() { return successor; }
+    
+    @Override
+    public String toString() 
+    { 
+        return "Spawn{ children: " + children.size() + ", successor: " + successor + '}'; 
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import java.util.List;
+
+/**
+ * The Euclidean distances between the cities of a TspInstance, packed: 
+ * Only the lower triangle is held, row by row, n ( n - 1 ) / 2 entries, 
+ * as doubles, or, optionally, as floats, in half the space.
+ * For 10,000 cities, that is 200 MB of floats, instead of 800 MB for a double[n][n].
+ * Search tasks of small instances may ask for its rows: a double[n][n] built, 
+ * from the packed entries, once.
+ * @author Peter Cappello
+ */
+final public class DistanceMatrix 
+{
+    final private int numCities;
+    final private double[] doubles;
+    final private float[] floats;
+          private double[][] rows;
+    
+    /**
+     * @param cities the cities, each an {x, y} pair.
+     * @param isFloat true if the distances are held as floats.
+     */
+    DistanceMatrix( final double[][] cities, final boolean isFloat )
+    {
+        numCities = cities.length;
+        final int size = index( numCities, 0 );
+        doubles = isFloat ? null : new double[ size ];
+        floats = isFloat ? new float[ size ] : null;
+        for ( int i = 1; i < numCities; i++ )
+        for ( int j = 0; j < i; j++ )
+        {
+            final double deltaX = cities[ i ][ 0 ] - cities[ j ][ 0 ];
+            final double deltaY = cities[ i ][ 1 ] - cities[ j ][ 1 ];
+            final double distance = Math.sqrt( deltaX * deltaX + deltaY * deltaY );
+            if ( isFloat )
+            {
+                floats[ index( i, j ) ] = (float) distance;
+            }
+            else
+            {
+                doubles[ index( i, j ) ] = distance;
+            }
+        }
+    }
+    
+    /*
+     * The index of entry i, j, for j < i.
+     */
+    static private int index( final int i, final int j ) { return i * ( i - 1 ) / 2 + j; }
+    
+    public int numCities() { return numCities; }
+    
+    /**
+     * @param i a city.
+     * @param j a city.
+     * @return the distance between them.
+     */
+    public double get( final int i, final int j )
+    {
+        if ( i == j )
+        {
+            return 0;
+        }
+        final int index = i > j ? index( i, j ) : index( j, i );
+        return floats == null ? doubles[ index ] : floats[ index ];
+    }
+    
+    /**
+     * @param tour a tour of cities.
+     * @return its length, including its closing edge.
+     */
+    public double tourDistance( final List<Integer> tour )
+    {
+        double cost = get( tour.get( tour.size() - 1 ), tour.get( 0 ) );
+        for ( int city = 0; city < tour.size() - 1; city ++ )
+        {
+            cost += get( tour.get( city ), tour.get( city + 1 ) );
+        }
+        return cost;
+    }
+    
+    /**
+     * @return the distances as a symmetric double[n][n], built on first request; not to be modified.
+     */
+    synchronized public double[][] rows()
+    {
+        if ( rows == null )
+        {
+            rows = new double[ numCities ][ numCities ];
+            for ( int i = 0; i < numCities; i++ )
+            for ( int j = 0; j < numCities; j++ )
+            {
+                rows[ i ][ j ] = get( i, j );
+            }
+        }
+        return rows;
+    }
+}
@@ -26,71 +26,259 @@ package applications.euclideantsp;
 import api.Job;
 import api.JobRunner;
 import api.Result;
+import api.ResultStream;
+import api.SharedBound;
 import api.Space;
 import api.Task;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 
 /**
- * A Job to compute a Euclidean Traveling Salesman Problem (TSP).
+ * A Job to compute a Euclidean Traveling Salesman Problem (TSP), in two stages.
+ * First, NUM_HEURISTIC_TASKS TaskTspHeuristics, each from a different start city, 
+ * find short tours fast; the shortest is the seed tour.
+ * Then, unless the job is approximate, whose value is the seed tour, 
+ * an exact search finds a tour shorter than the seed tour, if there is one, 
+ * pruning against the seed tour's length.
+ * By default, it searches by branch and bound, in one task, which spawns a task 
+ * per tour prefix 0, i, j that survives the bound, 
+ * the tasks sharing the length of the shortest tour found, as a SharedBound;
+ * its exhaustive search, one task per second city, is for small instances only.
+ * Its instance is the CITIES instance, unless one is given, as loaded from a TSPLIB file.
  * @author Peter Cappello
  */
 public class JobEuclideanTsp implements Job<List<Integer>>
 {
+    /**
+     * The most TaskTspHeuristics of the first stage: one per city, for smaller instances.
+     */
+    static final public int NUM_HEURISTIC_TASKS = 8;
     static final private int NUM_PIXALS = 600;
-    static final public  double[][] CITIES = TaskTspEuclidean.CITIES;
+    static final public double[][] CITIES =
+    {
+	{ 1, 1 },
+	{ 8, 1 },
+	{ 8, 8 },
+	{ 1, 8 },
+	{ 2, 2 },
+	{ 7, 2 },
+	{ 7, 7 },
+	{ 2, 7 },
+	{ 3, 3 },
+	{ 6, 3 },
+	{ 6, 6 },
+	{ 3, 6 }
+    };
+    static final public TspInstance INSTANCE = new TspInstance( "CITIES", CITIES, false );
+    
+    /*
+     * The search of the second stage, if any.
+     */
+    private enum Search { BRANCH_AND_BOUND, EXHAUSTIVE, NONE }
     
-    private final List<Task> taskList = new LinkedList<>();
+    private final TspInstance instance;
+    private final DistanceMatrix distances;
+    private final Search search;
+    private final String boundName = getClass().getName() + '@' + UUID.randomUUID();
+    private int numHeuristicTasks;
+    private List<Integer> seedTour;
     private List<Integer> tour;
     
-    public JobEuclideanTsp() {}
+    public JobEuclideanTsp() { this( INSTANCE ); }
+    
+    /**
+     * @param cities the cities of the instance, each an {x, y} pair.
+     */
+    public JobEuclideanTsp( final double[][] cities ) 
+    { 
+        this( new TspInstance( cities.length + " cities", cities, false ) ); 
+    }
+    
+    /**
+     * @param instance the instance.
+     */
+    public JobEuclideanTsp( final TspInstance instance ) { this( instance, Search.BRANCH_AND_BOUND ); }
+    
+    private JobEuclideanTsp( final TspInstance instance, final Search search )
+    {
+        this.instance = instance;
+        this.distances = instance.distances();
+        this.search = search;
+    }
+    
+    /**
+     * @return a job that searches the CITIES instance exhaustively.
+     */
+    static public JobEuclideanTsp exhaustive() { return exhaustive( INSTANCE ); }
+    
+    /**
+     * @param instance the instance, of few cities: The search takes O( (n - 1)! ) time.
+     * @return a job that searches the instance exhaustively.
+     */
+    static public JobEuclideanTsp exhaustive( final TspInstance instance ) 
+    { 
+        return new JobEuclideanTsp( instance, Search.EXHAUSTIVE ); 
+    }
+    
+    /**
+     * @param instance the instance, of any size.
+     * @return a job whose value is the shortest tour of its TaskTspHeuristics: 
+     * short, but not necessarily the shortest.
+     */
+    static public JobEuclideanTsp approximate( final TspInstance instance ) 
+    { 
+        return new JobEuclideanTsp( instance, Search.NONE ); 
+    }
+    
+    /**
+     * The instance given by system properties: 
+     * that of TSPLIB file euclideantsp.file, its distances floats if euclideantsp.float is true; 
+     * else euclideantsp.cities random cities; else the CITIES instance.
+     * @return the instance.
+     * @throws IOException if the file cannot be loaded.
+     */
+    static TspInstance instance() throws IOException
+    {
+        final String fileName = System.getProperty( "euclideantsp.file" );
+        final Integer numCities = Integer.getInteger( "euclideantsp.cities" );
+        return fileName != null ? TspInstance.load( fileName, Boolean.getBoolean( "euclideantsp.float" ) )
+             : numCities != null 
+                ? new TspInstance( numCities + " random cities", randomCities( numCities, numCities ), false )
+             : INSTANCE;
+    }
     
+    /**
+     * @param numCities the number of cities.
+     * @param seed the seed of the random number generator.
+     * @return numCities cities placed uniformly at random in a 10 by 10 square.
+     */
+    static public double[][] randomCities( final int numCities, final long seed )
+    {
+        final Random random = new Random( seed );
+        final double[][] randomCities = new double[ numCities ][];
+        for ( int i = 0; i < numCities; i++ )
+        {
+            randomCities[ i ] = new double[] { 10 * random.nextDouble(), 10 * random.nextDouble() };
+        }
+        return randomCities;
+    }
+    
+    /**
+     * The tasks of the first stage: TaskTspHeuristics from start cities spread over the cities.
+     * @return the tasks.
+     */
     @Override
-    public List<Task> decompose() throws RemoteException
+    public List<Task> decompose()
     {
+        final int numCities = instance.numCities();
+        numHeuristicTasks = Math.min( NUM_HEURISTIC_TASKS, numCities );
+        final List<Task> taskList = new ArrayList<>();
+        for ( int task = 0; task < numHeuristicTasks; task++ )
+        {
+            taskList.add( new TaskTspHeuristic( instance, task * numCities / numHeuristicTasks ) );
+        }
+        return taskList;
+    }
+    
+    /*
+     * A tour and its reverse have the same length: 
+     * the tasks search only tours whose second city precedes their last.
+     */
+    private List<Task> decomposeBranchAndBound( final double upperBound )
+    {
+        final List<Task> taskList = new ArrayList<>();
+        taskList.add( new TaskTspBranchAndBound( instance, new int[] { 0 }, upperBound, boundName ) );
+        return taskList;
+    }
+    
+    private List<Task> decomposeExhaustive( final double upperBound )
+    {
+        final List<Task> taskList = new ArrayList<>();
         final List<Integer> integerList = new LinkedList<>();
-        for ( int i = 1; i < TaskTspEuclidean.CITIES.length; i++ )
+        for ( int i = 1; i < instance.numCities(); i++ )
         {
             integerList.add( i );
         }
 
-        integerList.forEach( i -> 
+        // the tours of the last city are the reverses of those of the others.
+        integerList.subList( 0, Math.max( 0, integerList.size() - 1 ) ).forEach( i -> 
         {
             final List<Integer> partialList = new LinkedList<>( integerList );
             partialList.remove( i - 1 );
-            final Task task = new TaskTspEuclidean( i, partialList );
+            final Task task = new TaskTspEuclidean( instance, i, partialList, upperBound );
             taskList.add( task );
         } );
         
         return taskList;
     }
 
+    /**
+     * Take the first stage's tours; then put the second stage's tasks, if any, 
+     * and take their tours: The job's value is the shortest.
+     * @param space the Space into which the job's tasks were put.
+     * @throws RemoteException 
+     */
     @Override
     public void compose( Space space ) throws RemoteException 
     {
-        tour = new LinkedList<>();
-        double shortestTourDistance = Double.MAX_VALUE;
-        for ( Task task : taskList ) 
+        try ( ResultStream resultStream = new ResultStream( space ) )
         {
-            Result<List<Integer>> result = space.take();
+            seedTour = shortestTour( resultStream, numHeuristicTasks, new LinkedList<>() );
+            Logger.getLogger( this.getClass().getCanonicalName() )
+                  .log( Level.INFO, "Seed tour length: {0}", distances.tourDistance( seedTour ) );
+            tour = seedTour;
+            if ( search != Search.NONE && seedTour.size() > 3 )
+            {
+                final double upperBound = distances.tourDistance( seedTour );
+                final List<Task> taskList = search == Search.EXHAUSTIVE ? decomposeExhaustive( upperBound ) 
+                                                                        : decomposeBranchAndBound( upperBound );
+                if ( search == Search.BRANCH_AND_BOUND )
+                {
+                    space.share( boundName, new SharedBound( upperBound ) ); // the job's: dropped when it closes
+                }
+                space.putAll( taskList );
+                tour = shortestTour( resultStream, taskList.size(), seedTour );
+            }
+        }
+    }
+    
+    /*
+     * The shortest of tour and the next numResults tours of resultStream.
+     * A task's tour is empty if it found none shorter than its bound.
+     */
+    private List<Integer> shortestTour( final ResultStream resultStream, final int numResults, List<Integer> tour )
+    {
+        double shortestTourDistance = tour.isEmpty() ? Double.MAX_VALUE : distances.tourDistance( tour );
+        for ( int i = 0; i < numResults; i++ ) 
+        {
+            Result<List<Integer>> result = resultStream.take();
             Logger.getLogger(this.getClass().getCanonicalName() )
                   .log(Level.INFO, "Task time: {0} ms.", result.getTaskRunTime() );
-            double tourDistance = TaskTspEuclidean.tourDistance( result.getTaskReturnValue() );
+            if ( result.getTaskReturnValue().isEmpty() )
+            {
+                continue; // no tour in the task's subtree beat its bound.
+            }
+            double tourDistance = distances.tourDistance( result.getTaskReturnValue() );
             if ( tourDistance < shortestTourDistance )
             {
                 tour = result.getTaskReturnValue();
                 shortestTourDistance = tourDistance;
             }
         }
+        return tour;
     }
 
     @Override
@@ -100,31 +288,42 @@ public class JobEuclideanTsp implements Job<List<Integer>>
     public JLabel viewResult( List<Integer> cityList ) 
     {
         Logger.getLogger( this.getClass().getCanonicalName() ).log( Level.INFO, "Tour: {0}", cityList.toString() );
+        return view( instance.cities(), cityList );
+    }
+    
+    /**
+     * Draw a tour of cities.
+     * @param cities the cities, each an {x, y} pair.
+     * @param cityList the tour.
+     * @return the drawing.
+     */
+    static public JLabel view( final double[][] cities, final List<Integer> cityList )
+    {
         Integer[] tour = cityList.toArray( new Integer[0] );
 
         // display the graph graphically, as it were
         // get minX, maxX, minY, maxY, assuming they 0.0 <= mins
-        double minX = CITIES[0][0], maxX = CITIES[0][0];
-        double minY = CITIES[0][1], maxY = CITIES[0][1];
-        for ( double[] cities : CITIES ) 
+        double minX = cities[0][0], maxX = cities[0][0];
+        double minY = cities[0][1], maxY = cities[0][1];
+        for ( double[] city : cities ) 
         {
-            if ( cities[0] < minX ) 
-                minX = cities[0];
-            if ( cities[0] > maxX ) 
-                maxX = cities[0];
-            if ( cities[1] < minY ) 
-                minY = cities[1];
-            if ( cities[1] > maxY ) 
-                maxY = cities[1];
+            if ( city[0] < minX ) 
+                minX = city[0];
+            if ( city[0] > maxX ) 
+                maxX = city[0];
+            if ( city[1] < minY ) 
+                minY = city[1];
+            if ( city[1] > maxY ) 
+                maxY = city[1];
         }
 
         // scale points to fit in unit square
         final double side = Math.max( maxX - minX, maxY - minY );
-        double[][] scaledCities = new double[CITIES.length][2];
-        for ( int i = 0; i < CITIES.length; i++ )
+        double[][] scaledCities = new double[cities.length][2];
+        for ( int i = 0; i < cities.length; i++ )
         {
-            scaledCities[i][0] = ( CITIES[i][0] - minX ) / side;
-            scaledCities[i][1] = ( CITIES[i][1] - minY ) / side;
+            scaledCities[i][0] = ( cities[i][0] - minX ) / side;
+            scaledCities[i][1] = ( cities[i][1] - minY ) / side;
         }
 
         final Image image = new BufferedImage( NUM_PIXALS, NUM_PIXALS, BufferedImage.TYPE_INT_ARGB );
@@ -138,7 +337,7 @@ public class JobEuclideanTsp implements Job<List<Integer>>
         int city1 = tour[0], city2;
         x1 = margin + (int) ( scaledCities[city1][0]*field );
         y1 = margin + (int) ( scaledCities[city1][1]*field );
-        for ( int i = 1; i < CITIES.length; i++ )
+        for ( int i = 1; i < cities.length; i++ )
         {
             city2 = tour[i];
             x2 = margin + (int) ( scaledCities[city2][0]*field );
@@ -155,7 +354,7 @@ public class JobEuclideanTsp implements Job<List<Integer>>
         // draw vertices
         final int VERTEX_DIAMETER = 6;
         graphics.setColor( Color.RED );
-        for ( int i = 0; i < CITIES.length; i++ )
+        for ( int i = 0; i < cities.length; i++ )
         {
             int x = margin + (int) ( scaledCities[i][0]*field );
             int y = margin + (int) ( scaledCities[i][1]*field );
@@ -168,6 +367,10 @@ public class JobEuclideanTsp implements Job<List<Integer>>
     
     public static void main( String[] args ) throws Exception
     {
-        new JobRunner<>( new JobEuclideanTsp(), "Euclidean TSP", "" ).run();
+        final TspInstance instance = instance();
+        final JobEuclideanTsp job = Boolean.getBoolean( "euclideantsp.exhaustive" ) ? exhaustive( instance )
+                : Boolean.getBoolean( "euclideantsp.approximate" ) ? approximate( instance )
+                : new JobEuclideanTsp( instance );
+        new JobRunner<>( job, "Euclidean TSP", "" ).run();
     }
 }
@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import api.Job;
+import api.JobRunner;
+import api.Result;
+import api.ResultStream;
+import api.Space;
+import api.Task;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JLabel;
+
+/**
+ * A Job to compute a Euclidean Traveling Salesman Problem (TSP) exactly, 
+ * by Held-Karp dynamic programming, in O( 2^n n^2 ) time: 
+ * Layer k of its table holds, for each subset of size k of cities 1, ..., n - 1, 
+ * and each city j in it, the length of the shortest path from city 0 through 
+ * the subset, ending at j (see TaskHeldKarp).
+ * The job computes layer 1; each later layer is computed by TaskHeldKarps, 
+ * each a slice of the layer, which are put into the Space once the previous layer is complete.
+ * The job keeps only the last layer's costs, as floats, and every layer's parents, 
+ * as bytes: (n - 1) 2^(n - 2) bytes in all, 100 MB for 24 cities.
+ * Costs are floats, so the tour is optimal to within float rounding.
+ * @author Peter Cappello
+ */
+public class JobHeldKarpTsp implements Job<List<Integer>>
+{
+    /**
+     * The most cities: The parents then take 100 MB, and the largest layer, 
+     * C( 23, 11 ) 11 entries, is far from overflowing an int index.
+     * Each city more doubles the memory.
+     */
+    static final public int MAX_CITIES = 24;
+    
+    /**
+     * A layer is divided into at most this many tasks ...
+     */
+    static final public int MAX_TASKS_PER_LAYER = 16;
+    
+    /**
+     * ... of at least this many subsets, unless the layer is smaller.
+     */
+    static final public int MIN_SUBSETS_PER_TASK = 1024;
+    
+    private final TspInstance instance;
+    private final int[][] binomials;
+    private final byte[][] parents;
+    private float[] costs;
+    private int numTasks; // of the last layer put
+    private List<Integer> tour;
+    
+    public JobHeldKarpTsp() { this( JobEuclideanTsp.INSTANCE ); }
+    
+    /**
+     * @param cities the cities of the instance, each an {x, y} pair.
+     * @throws IllegalArgumentException if there are more than MAX_CITIES cities.
+     */
+    public JobHeldKarpTsp( final double[][] cities ) throws IllegalArgumentException
+    {
+        this( new TspInstance( cities.length + " cities", cities, false ) );
+    }
+    
+    /**
+     * @param instance the instance.
+     * @throws IllegalArgumentException if it has more than MAX_CITIES cities.
+     */
+    public JobHeldKarpTsp( final TspInstance instance ) throws IllegalArgumentException
+    {
+        if ( instance.numCities() > MAX_CITIES )
+        {
+            throw new IllegalArgumentException( "More than " + MAX_CITIES + " cities: " + instance.numCities() );
+        }
+        this.instance = instance;
+        this.binomials = TaskHeldKarp.binomials( Math.max( 0, instance.numCities() - 1 ) );
+        this.parents = new byte[ Math.max( 2, instance.numCities() ) ][];
+    }
+    
+    /**
+     * Compute layer 1: The shortest path from city 0 through { j }, ending at j, is the edge 0 j.
+     * @return the tasks of layer 2.
+     */
+    @Override
+    public List<Task> decompose() 
+    {
+        costs = new float[ Math.max( 0, instance.numCities() - 1 ) ];
+        parents[ 1 ] = new byte[ costs.length ];
+        for ( int j = 1; j < instance.numCities(); j++ )
+        {
+            costs[ j - 1 ] = (float) instance.distances().get( 0, j );
+        }
+        return tasks( 2 );
+    }
+    
+    /*
+     * The tasks of layer k; none if there is no such layer.
+     */
+    private List<Task> tasks( final int k )
+    {
+        final List<Task> taskList = new ArrayList<>();
+        if ( k > instance.numCities() - 1 )
+        {
+            return taskList;
+        }
+        final int numSubsets = binomials[ instance.numCities() - 1 ][ k ];
+        final int numTasks = Math.max( 1, Math.min( MAX_TASKS_PER_LAYER, numSubsets / MIN_SUBSETS_PER_TASK ) );
+        for ( int task = 0; task < numTasks; task++ )
+        {
+            final int from = (int) ( (long) numSubsets * task / numTasks );
+            final int to = (int) ( (long) numSubsets * ( task + 1 ) / numTasks );
+            taskList.add( new TaskHeldKarp( instance, k, from, to, costs ) );
+        }
+        this.numTasks = numTasks;
+        return taskList;
+    }
+
+    /**
+     * Compose each layer from its tasks' slices, then put the next layer's tasks, 
+     * through layer n - 1; then close the tour, and trace it back through the parents.
+     * @param space the Space into which the job's tasks were put.
+     * @throws RemoteException 
+     */
+    @Override
+    public void compose( Space space ) throws RemoteException 
+    {
+        final int n = instance.numCities();
+        try ( ResultStream resultStream = new ResultStream( space ) )
+        {
+            for ( int k = 2; k <= n - 1; k++ )
+            {
+                if ( k > 2 )
+                {
+                    space.putAll( tasks( k ) );
+                }
+                final float[] layerCosts = new float[ binomials[ n - 1 ][ k ] * k ];
+                parents[ k ] = new byte[ layerCosts.length ];
+                long runTime = 0;
+                for ( int task = 0; task < numTasks; task++ )
+                {
+                    final Result<ResultValueHeldKarp> result = resultStream.take();
+                    final ResultValueHeldKarp slice = result.getTaskReturnValue();
+                    System.arraycopy( slice.costs(), 0, layerCosts, slice.from() * k, slice.costs().length );
+                    System.arraycopy( slice.parents(), 0, parents[ k ], slice.from() * k, slice.parents().length );
+                    runTime += result.getTaskRunTime();
+                }
+                costs = layerCosts;
+                Logger.getLogger( this.getClass().getCanonicalName() )
+                      .log( Level.INFO, "Layer {0}: {1} tasks, {2} ms.", new Object[]{ k, numTasks, runTime } );
+            }
+        }
+        tour = n < 3 ? identity( n ) : tour();
+    }
+    
+    /*
+     * The shortest tour closes the shortest path through all cities, 
+     * from the city j that minimizes its length plus that of edge j 0; 
+     * the rest of the tour is traced back through the parents.
+     */
+    private List<Integer> tour()
+    {
+        final int n = instance.numCities();
+        int subset = ( 1 << ( n - 1 ) ) - 1;
+        int last = 0;
+        double shortest = Double.MAX_VALUE;
+        for ( int j = 1; j < n; j++ )
+        {
+            final double tourDistance = costs[ j - 1 ] + instance.distances().get( j, 0 );
+            if ( tourDistance < shortest )
+            {
+                shortest = tourDistance;
+                last = j;
+            }
+        }
+        final int[] shortestTour = new int[ n ];
+        for ( int k = n - 1; k > 0; k-- )
+        {
+            shortestTour[ k ] = last;
+            final int position = Integer.bitCount( subset & ( ( 1 << ( last - 1 ) ) - 1 ) );
+            final int parent = parents[ k ][ TaskHeldKarp.rank( binomials, subset ) * k + position ];
+            subset &= ~( 1 << ( last - 1 ) );
+            last = parent;
+        }
+        return new Tour( shortestTour );
+    }
+    
+    static private List<Integer> identity( final int n )
+    {
+        final int[] identity = new int[ n ];
+        for ( int i = 0; i < n; i++ )
+        {
+            identity[ i ] = i;
+        }
+        return new Tour( identity );
+    }
+
+    @Override
+    public List<Integer> value() { return tour; }
+
+    @Override
+    public JLabel viewResult( List<Integer> cityList ) 
+    {
+        Logger.getLogger( this.getClass().getCanonicalName() ).log( Level.INFO, "Tour: {0}", cityList.toString() );
+        return JobEuclideanTsp.view( instance.cities(), cityList );
+    }
+    
+    public static void main( String[] args ) throws Exception
+    {
+        final JobHeldKarpTsp job = new JobHeldKarpTsp( JobEuclideanTsp.instance() );
+        new JobRunner<>( job, "Euclidean TSP: Held-Karp", "" ).run();
+    }
+}
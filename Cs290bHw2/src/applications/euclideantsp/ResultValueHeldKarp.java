@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * A slice of a layer of the Held-Karp table, computed by a TaskHeldKarp: 
+ * the costs and parents of the subsets ranked from onward.
+ * Its wire form is from, and the costs and parents as arrays.
+ * @author Peter Cappello
+ */
+public class ResultValueHeldKarp implements Externalizable
+{
+    private int from;
+    private float[] costs;
+    private byte[] parents;
+    
+    /**
+     * For deserialization only.
+     */
+    public ResultValueHeldKarp() {}
+    
+    public ResultValueHeldKarp( final int from, final float[] costs, final byte[] parents )
+    {
+        this.from = from;
+        this.costs = costs;
+        this.parents = parents;
+    }
+    
+    public int from() { return from; }
+    
+    public float[] costs() { return costs; }
+    
+    public byte[] parents() { return parents; }
+
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        out.writeInt( from );
+        out.writeObject( costs );
+        out.writeObject( parents );
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException, ClassNotFoundException 
+    {
+        from = in.readInt();
+        costs = (float[]) in.readObject();
+        parents = (byte[]) in.readObject();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import api.Successor;
+import java.util.List;
+
+/**
+ * Compose the tours of a TaskTspBranchAndBound's children: the shortest of them,
+ * or an empty Tour, if each is empty.
+ * @author Peter Cappello
+ */
+public class ShortestTour implements Successor<List<Integer>>
+{
+    private final TspInstance instance;
+    
+    public ShortestTour( final TspInstance instance ) { this.instance = instance; }
+    
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public List<Integer> compose( final List<Object> values ) 
+    {
+        List<Integer> shortestTour = new Tour( new int[ 0 ] );
+        double shortestTourDistance = Double.MAX_VALUE;
+        for ( Object value : values )
+        {
+            final List<Integer> tour = (List<Integer>) value;
+            if ( tour.isEmpty() )
+            {
+                continue;
+            }
+            final double tourDistance = instance.distances().tourDistance( tour );
+            if ( tourDistance < shortestTourDistance )
+            {
+                shortestTour = tour;
+                shortestTourDistance = tourDistance;
+            }
+        }
+        return shortestTour;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import api.Task;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Compute a slice of one layer of the Held-Karp table: for each subset S, of size k, 
+ * of cities 1, ..., n - 1, and each city j in S, the length of the shortest path 
+ * from city 0 through the cities of S, ending at j, and the city before j on that path.
+ * Subsets are bitsets, city c being bit c - 1, ranked in colexicographic order, 
+ * which is increasing order of the bitsets;
+ * a layer holds k entries per subset, that of city j at the position of its bit in S.
+ * The slice is the subsets ranked from, ..., to - 1; computing it needs the whole of layer k - 1.
+ * Its wire form is the TspInstance, k, from, to, and layer k - 1's costs.
+ * @author Peter Cappello
+ */
+public class TaskHeldKarp implements Task<ResultValueHeldKarp>, Externalizable
+{
+    private TspInstance instance;
+    private int k;
+    private int from;
+    private int to;
+    private float[] previousCosts;
+    
+    /**
+     * For deserialization only.
+     */
+    public TaskHeldKarp() {}
+    
+    /**
+     * @param instance the instance.
+     * @param k the size of the layer's subsets, at least 2.
+     * @param from the rank of the slice's first subset.
+     * @param to the rank after that of its last subset.
+     * @param previousCosts the costs of layer k - 1.
+     */
+    public TaskHeldKarp( final TspInstance instance, final int k, final int from, final int to, 
+                         final float[] previousCosts )
+    {
+        this.instance = instance;
+        this.k = k;
+        this.from = from;
+        this.to = to;
+        this.previousCosts = previousCosts;
+    }
+    
+    @Override
+    public ResultValueHeldKarp call() 
+    {
+        final double[][] distances = instance.distances().rows();
+        final int[][] binomials = binomials( instance.numCities() - 1 );
+        final float[] costs = new float[ ( to - from ) * k ];
+        final byte[] parents = new byte[ costs.length ];
+        int subset = unrank( binomials, k, from );
+        for ( int index = 0; index < costs.length; subset = next( subset ) )
+        {
+            for ( int jBits = subset; jBits != 0; jBits &= jBits - 1, index++ )
+            {
+                final int j = Integer.numberOfTrailingZeros( jBits );
+                final int predecessor = subset & ~( 1 << j );
+                final int base = rank( binomials, predecessor ) * ( k - 1 );
+                final double[] jDistances = distances[ j + 1 ];
+                float cost = Float.MAX_VALUE;
+                int parent = 0;
+                int position = 0;
+                for ( int iBits = predecessor; iBits != 0; iBits &= iBits - 1, position++ )
+                {
+                    final int i = Integer.numberOfTrailingZeros( iBits );
+                    final float candidate = previousCosts[ base + position ] + (float) jDistances[ i + 1 ];
+                    if ( candidate < cost )
+                    {
+                        cost = candidate;
+                        parent = i + 1;
+                    }
+                }
+                costs[ index ] = cost;
+                parents[ index ] = (byte) parent;
+            }
+        }
+        return new ResultValueHeldKarp( from, costs, parents );
+    }
+    
+    /**
+     * @param n the size of the largest set.
+     * @return the binomial coefficients C( m, r ), for 0 &lt;= m, r &lt;= n, as binomials[ m ][ r ].
+     */
+    static int[][] binomials( final int n )
+    {
+        final int[][] binomials = new int[ n + 1 ][ n + 2 ];
+        for ( int m = 0; m <= n; m++ )
+        {
+            binomials[ m ][ 0 ] = 1;
+            for ( int r = 1; r <= m; r++ )
+            {
+                binomials[ m ][ r ] = binomials[ m - 1 ][ r - 1 ] + binomials[ m - 1 ][ r ];
+            }
+        }
+        return binomials;
+    }
+    
+    /**
+     * @return the colexicographic rank of subset among subsets of its size: 
+     * the sum, over its bits b_t, in increasing order, of C( b_t, t + 1 ).
+     */
+    static int rank( final int[][] binomials, final int subset )
+    {
+        int rank = 0;
+        int t = 1;
+        for ( int bits = subset; bits != 0; bits &= bits - 1 )
+        {
+            rank += binomials[ Integer.numberOfTrailingZeros( bits ) ][ t++ ];
+        }
+        return rank;
+    }
+    
+    /**
+     * @return the subset of size k whose colexicographic rank is rank.
+     */
+    static int unrank( final int[][] binomials, final int k, int rank )
+    {
+        int subset = 0;
+        for ( int t = k; t > 0; t-- )
+        {
+            int b = t - 1;
+            while ( b + 1 < binomials.length && binomials[ b + 1 ][ t ] <= rank )
+            {
+                b++;
+            }
+            subset |= 1 << b;
+            rank -= binomials[ b ][ t ];
+        }
+        return subset;
+    }
+    
+    /**
+     * @return the next larger bitset of the same size: the next subset in colexicographic order.
+     */
+    static int next( final int subset )
+    {
+        final int lowest = subset & -subset;
+        final int ripple = subset + lowest;
+        return ( ( ( ripple ^ subset ) >>> 2 ) / lowest ) | ripple;
+    }
+    
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        out.writeObject( instance );
+        out.writeInt( k );
+        out.writeInt( from );
+        out.writeInt( to );
+        out.writeObject( previousCosts );
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException, ClassNotFoundException 
+    {
+        instance = (TspInstance) in.readObject();
+        k = in.readInt();
+        from = in.readInt();
+        to = in.readInt();
+        previousCosts = (float[]) in.readObject();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return getClass() + "\n\tLayer: " + k + ", subsets: " + from + " - " + to;
+    }
+}
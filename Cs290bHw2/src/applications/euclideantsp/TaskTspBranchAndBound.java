@@ -0,0 +1,295 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import api.SharedBound;
+import api.SharedValue;
+import api.Spawn;
+import api.Task;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import util.VarInt;
+
+/**
+ * Find a tour of minimum cost among those that start with a given prefix,
+ * by depth-first branch and bound.
+ * A partial tour is extended only while its length plus a lower bound on the 
+ * rest of the tour is less than the length of the best tour known, 
+ * by this task or, through the SharedBound named boundName, by any task of the job:
+ * the lower bound is the weight of a minimum spanning tree of the unvisited cities, 
+ * the last city of the partial tour, and city 0, 
+ * since the rest of any tour is a path spanning them.
+ * Children are searched nearest city first, so that good tours are found early.
+ * Of a tour and its reverse, only the one whose last city exceeds its second city is searched.
+ * A task whose prefix is shorter than SPAWN_DEPTH does not search: It spawns 
+ * a child task for each extension of its prefix by one city that survives the bound, 
+ * and a ShortestTour to compose their tours. 
+ * 
+ * The task returns the shortest tour it finds that is shorter than upperBound 
+ * and no longer than the shared bound, so that a task re-executed after its 
+ * Computer failed still returns the tour whose length it shared; 
+ * if there is none, it returns an empty Tour.
+ * Its wire form is the TspInstance, the prefix as VarInts, upperBound, and boundName.
+ * @author Peter Cappello
+ */
+public class TaskTspBranchAndBound implements Task<Object>, Externalizable
+{
+    /**
+     * Tasks whose prefix has fewer cities spawn; the others search.
+     */
+    static final public int SPAWN_DEPTH = 3;
+    
+    private TspInstance instance;
+    private int[] prefix;
+    private double upperBound;
+    private String boundName;
+    
+    // search state, built in call
+    private double[][] distances;
+    private int[][] nearestCities;
+    private boolean[] isVisited;
+    private int[] tour;
+    private int[] bestTour;
+    private double bestTourDistance;
+    private SharedValue bound;
+    private double[] treeDistances;
+    private int[] unvisitedCities;
+    
+    /**
+     * For deserialization only.
+     */
+    public TaskTspBranchAndBound() {}
+    
+    /**
+     * @param instance the instance.
+     * @param prefix the cities with which every tour searched starts; prefix[0] is 0.
+     * @param upperBound only tours shorter than this are returned.
+     * @param boundName the name of the job's SharedBound: the length of the shortest tour found.
+     */
+    public TaskTspBranchAndBound( final TspInstance instance, final int[] prefix, final double upperBound, 
+                                  final String boundName )
+    {
+        this.instance = instance;
+        this.prefix = prefix;
+        this.upperBound = upperBound;
+        this.boundName = boundName;
+    }
+    
+    /**
+     * Compute a tour of minimum cost among those that start with prefix.
+     * @return a tour of minimum cost, if it is shorter than upperBound, else an empty tour;
+     * or, if prefix is short, the Spawn that computes it.
+     */
+    @Override
+    public Object call() 
+    {
+        final int numCities = instance.numCities();
+        distances = instance.distances().rows();
+        nearestCities = nearestCities( distances );
+        isVisited = new boolean[ numCities ];
+        tour = new int[ numCities ];
+        treeDistances = new double[ numCities ];
+        unvisitedCities = new int[ numCities ];
+        bestTourDistance = upperBound;
+        bound = SharedValue.of( boundName );
+        bound.update( new SharedBound( upperBound ) );
+        
+        double pathDistance = 0;
+        for ( int i = 0; i < prefix.length; i++ )
+        {
+            tour[ i ] = prefix[ i ];
+            isVisited[ prefix[ i ] ] = true;
+            if ( i > 0 )
+            {
+                pathDistance += distances[ prefix[ i - 1 ] ][ prefix[ i ] ];
+            }
+        }
+        if ( prefix.length < SPAWN_DEPTH && numCities > SPAWN_DEPTH )
+        {
+            return spawn( pathDistance );
+        }
+        search( prefix.length, pathDistance );
+        return bestTour == null ? new Tour( new int[ 0 ] ) : new Tour( bestTour );
+    }
+    
+    /*
+     * A child for each unvisited city whose extension of the prefix is not pruned.
+     * A second city must precede some later city, so it is not the last city.
+     */
+    private Spawn spawn( final double pathDistance )
+    {
+        final int size = prefix.length;
+        final int lastCity = tour[ size - 1 ];
+        final double childUpperBound = Math.min( upperBound, sharedBound() );
+        final List<Task> children = new ArrayList<>();
+        for ( int city : nearestCities[ lastCity ] )
+        {
+            if ( isVisited[ city ] || size == 1 && city == instance.numCities() - 1 )
+            {
+                continue;
+            }
+            final double childPathDistance = pathDistance + distances[ lastCity ][ city ];
+            isVisited[ city ] = true;
+            final double lowerBound = childPathDistance + spanningTreeDistance( city );
+            isVisited[ city ] = false;
+            if ( lowerBound < bestTourDistance && lowerBound <= sharedBound() )
+            {
+                final int[] childPrefix = Arrays.copyOf( prefix, size + 1 );
+                childPrefix[ size ] = city;
+                children.add( new TaskTspBranchAndBound( instance, childPrefix, childUpperBound, boundName ) );
+            }
+        }
+        return new Spawn( children, new ShortestTour( instance ) );
+    }
+    
+    private void search( final int size, final double pathDistance )
+    {
+        final int lastCity = tour[ size - 1 ];
+        if ( size == tour.length )
+        {
+            final double tourDistance = pathDistance + distances[ lastCity ][ 0 ];
+            if ( tourDistance < bestTourDistance && tourDistance <= sharedBound() 
+                                                 && ( size < 3 || tour[ 1 ] < lastCity ) )
+            {
+                bestTourDistance = tourDistance;
+                bestTour = tour.clone();
+                bound.propose( new SharedBound( tourDistance ) );
+            }
+            return;
+        }
+        final double lowerBound = pathDistance + spanningTreeDistance( lastCity );
+        if ( lowerBound >= bestTourDistance || lowerBound > sharedBound() )
+        {
+            return;
+        }
+        for ( int city : nearestCities[ lastCity ] )
+        {
+            if ( ! isVisited[ city ] )
+            {
+                isVisited[ city ] = true;
+                tour[ size ] = city;
+                search( size + 1, pathDistance + distances[ lastCity ][ city ] );
+                isVisited[ city ] = false;
+            }
+        }
+    }
+    
+    private double sharedBound() { return ( (SharedBound) bound.get() ).value(); }
+    
+    /*
+     * The weight of a minimum spanning tree of the unvisited cities, lastCity, and city 0,
+     * by Prim's algorithm grown from city 0.
+     */
+    private double spanningTreeDistance( final int lastCity )
+    {
+        int numUnvisited = 0;
+        for ( int city = 1; city < isVisited.length; city++ )
+        {
+            if ( ! isVisited[ city ] )
+            {
+                unvisitedCities[ numUnvisited++ ] = city;
+            }
+        }
+        unvisitedCities[ numUnvisited++ ] = lastCity;
+        for ( int i = 0; i < numUnvisited; i++ )
+        {
+            treeDistances[ i ] = distances[ 0 ][ unvisitedCities[ i ] ];
+        }
+        double treeDistance = 0;
+        while ( numUnvisited > 0 )
+        {
+            int nearest = 0;
+            for ( int i = 1; i < numUnvisited; i++ )
+            {
+                if ( treeDistances[ i ] < treeDistances[ nearest ] )
+                {
+                    nearest = i;
+                }
+            }
+            treeDistance += treeDistances[ nearest ];
+            final int city = unvisitedCities[ nearest ];
+            unvisitedCities[ nearest ] = unvisitedCities[ --numUnvisited ];
+            treeDistances[ nearest ] = treeDistances[ numUnvisited ];
+            for ( int i = 0; i < numUnvisited; i++ )
+            {
+                treeDistances[ i ] = Math.min( treeDistances[ i ], distances[ city ][ unvisitedCities[ i ] ] );
+            }
+        }
+        return treeDistance;
+    }
+    
+    /*
+     * For each city, the other cities other than city 0, nearest first.
+     */
+    static private int[][] nearestCities( final double[][] distances )
+    {
+        final int[][] nearestCities = new int[ distances.length ][];
+        for ( int city = 0; city < distances.length; city++ )
+        {
+            final double[] cityDistances = distances[ city ];
+            nearestCities[ city ] = IntStream.range( 1, distances.length ).boxed()
+                    .sorted( ( a, b ) -> Double.compare( cityDistances[ a ], cityDistances[ b ] ) )
+                    .mapToInt( Integer::intValue ).toArray();
+        }
+        return nearestCities;
+    }
+    
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        out.writeObject( instance );
+        VarInt.write( out, prefix.length );
+        for ( int city : prefix )
+        {
+            VarInt.write( out, city );
+        }
+        out.writeDouble( upperBound );
+        out.writeUTF( boundName );
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException, ClassNotFoundException 
+    {
+        instance = (TspInstance) in.readObject();
+        prefix = new int[ VarInt.read( in ) ];
+        for ( int i = 0; i < prefix.length; i++ )
+        {
+            prefix[ i ] = VarInt.read( in );
+        }
+        upperBound = in.readDouble();
+        boundName = in.readUTF();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return getClass() + "\n\tPrefix: " + Arrays.toString( prefix );
+    }
+}
@@ -24,143 +24,193 @@
 package applications.euclideantsp;
 
 import api.Task;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import util.Permutation;
+import util.VarInt;
 
 /**
  * Find a tour of minimum cost among those that start with city 0, 
- * followed by city secondCity.
+ * followed by city secondCity, by exhaustive search.
+ * The search extends a path depth first, adding the length of each edge 
+ * as it is added, so each step costs O(1).
+ * Of a tour and its reverse, only the one whose last city exceeds secondCity 
+ * is generated: The last city is chosen first, from those that exceed secondCity.
+ * Only tours shorter than upperBound are sought: A path is abandoned once 
+ * it is no shorter than the shortest tour found, so a good bound, such as 
+ * the length of a TaskTspHeuristic's tour, prunes most of the search.
+ * Its wire form is the TspInstance, secondCity and partialCityList as VarInts, 
+ * then upperBound.
  * @author Peter Cappello
  */
-public class TaskTspEuclidean implements Task<List<Integer>>
+public class TaskTspEuclidean implements Task<List<Integer>>, Externalizable
 { 
-    static final public double[][] CITIES =
-    {
-	{ 1, 1 },
-	{ 8, 1 },
-	{ 8, 8 },
-	{ 1, 8 },
-	{ 2, 2 },
-	{ 7, 2 },
-	{ 7, 7 },
-	{ 2, 7 },
-	{ 3, 3 },
-	{ 6, 3 },
-	{ 6, 6 },
-	{ 3, 6 }
-    };
-//    static final public double[][] CITIES =
-//    {
-//        { 0, 0 },
-//	{ 1, 1 },
-//	{ 2, 0 },
-//	{ 3, 1 },
-//	{ 4, 0 },
-//	{ 5, 1 },
-//	{ 6, 0 },
-//	{ 7, 1 },
-//	{ 8, 0 },
-//        { 9, 1 },
-//	{ 10, 0 }
-//    };
-    static final public double[][] DISTANCES = initializeDistances();
-    static final private Integer ONE = 1;
-    static final private Integer TWO = 2;
+    private TspInstance instance;
+    private int secondCity;
+    private List<Integer> partialCityList;
+    private double upperBound;
+    
+    // search state, built in call
+    private double[][] distances;
+    private int[] subtour;
+    private double[] closingDistances;
+    private int[] shortestTour;
+    private double shortestTourDistance;
     
-    final private int secondCity;
-    final private List<Integer> partialCityList;
+    /**
+     * For deserialization only.
+     */
+    public TaskTspEuclidean() {}
         
-    public TaskTspEuclidean( int secondCity, List<Integer> partialCityList )
+    /**
+     * @param instance the instance.
+     * @param secondCity the second city of every tour searched.
+     * @param partialCityList the cities other than 0 and secondCity.
+     */
+    public TaskTspEuclidean( TspInstance instance, int secondCity, List<Integer> partialCityList )
+    {
+        this( instance, secondCity, partialCityList, Double.MAX_VALUE );
+    }
+    
+    /**
+     * @param instance the instance.
+     * @param secondCity the second city of every tour searched.
+     * @param partialCityList the cities other than 0 and secondCity.
+     * @param upperBound only tours shorter than this are returned.
+     */
+    public TaskTspEuclidean( TspInstance instance, int secondCity, List<Integer> partialCityList, 
+                             double upperBound )
     {
+        this.instance = instance;
         this.secondCity = secondCity;
         this.partialCityList = partialCityList;
+        this.upperBound = upperBound;
     }
     
     /**
      * Compute a tour of minimum cost.
-     * @return a tour of minimum cost.
+     * @return a tour of minimum cost; empty if the task has no tours shorter than upperBound.
      */
     @Override
     public List<Integer> call() 
     {
-        // initial value for shortestTour and its distance.
-        List<Integer> shortestTour = addPrefix( new LinkedList<>( partialCityList ) );
-        double shortestTourDistance = tourDistance( shortestTour );
-        
-        // Use my permutation enumerator
-        Permutation<Integer> permutationEnumerator = new Permutation<>( partialCityList );
-        for ( List<Integer> subtour = permutationEnumerator.next(); subtour != null; subtour = permutationEnumerator.next() ) 
+        distances = instance.distances().rows();
+        subtour = new int[ partialCityList.size() ];
+        for ( int i = 0; i < subtour.length; i++ )
+        {
+            subtour[ i ] = partialCityList.get( i );
+        }
+        closingDistances = new double[ distances.length ];
+        shortestTour = null;
+        shortestTourDistance = upperBound;
+        final int end = subtour.length - 1;
+        for ( int i = 0; i <= end; i++ )
         {
-            List<Integer> tour = new ArrayList<>( subtour );
-            addPrefix( tour );
-            if ( tour.indexOf( ONE ) >  tour.indexOf( TWO ) )
+            if ( subtour[ i ] > secondCity )
             {
-                continue; // skip tour; it is the reverse of another.
+                swap( i, end );
+                final int lastCity = subtour[ end ];
+                for ( int city = 0; city < closingDistances.length; city++ )
+                {
+                    closingDistances[ city ] = distances[ city ][ lastCity ] + distances[ lastCity ][ 0 ];
+                }
+                search( 0, secondCity, distances[ 0 ][ secondCity ] );
+                swap( i, end );
             }
-            double tourDistance = tourDistance( tour );
+        }
+        return new Tour( shortestTour == null ? new int[ 0 ] : shortestTour );
+    }
+    
+    /*
+     * Extend the path 0, secondCity, subtour[ 0 ], ..., subtour[ k - 1 ] by each 
+     * permutation of subtour[ k ], ..., subtour[ end - 1 ], then close it through subtour[ end ].
+     * The path's last free city is the only one left: 
+     * The tour through it is closed at once, with closingDistances.
+     */
+    private void search( final int k, final int lastCity, final double pathDistance )
+    {
+        final int end = subtour.length - 1;
+        final double[] lastCityDistances = distances[ lastCity ];
+        if ( k >= end - 1 )
+        {
+            final int city = subtour[ k ];
+            final double tourDistance = pathDistance + lastCityDistances[ city ] + closingDistances[ city ];
             if ( tourDistance < shortestTourDistance )
             {
-                shortestTour = tour;
                 shortestTourDistance = tourDistance;
+                shortestTour = addPrefix( subtour );
             }
+            return;
+        }
+        if ( pathDistance >= shortestTourDistance )
+        {
+            return;
+        }
+        for ( int i = k; i < end; i++ )
+        {
+            swap( k, i );
+            search( k + 1, subtour[ k ], pathDistance + lastCityDistances[ subtour[ k ] ] );
+            swap( k, i );
         }
-        return shortestTour;
     }
     
-    private List<Integer> addPrefix( List<Integer> partialTour )
+    private int[] addPrefix( final int[] subtour )
     {
-        partialTour.add( 0, secondCity );
-        partialTour.add( 0, 0 );
-        return partialTour;
+        final int[] tour = new int[ subtour.length + 2 ];
+        tour[ 1 ] = secondCity;
+        System.arraycopy( subtour, 0, tour, 2, subtour.length );
+        return tour;
     }
     
-    @Override
-    public String toString()
+    private void swap( final int i, final int j )
     {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append( getClass() );
-        stringBuilder.append( "\n\tCities: " );
-        stringBuilder.append( 0 ).append( " " );
-        stringBuilder.append( secondCity ).append( " " );
-        partialCityList.stream().forEach(( city ) -> 
-        {
-            stringBuilder.append( city ).append( " " );
-        } );
-        return stringBuilder.toString();
+        final int city = subtour[ i ];
+        subtour[ i ] = subtour[ j ];
+        subtour[ j ] = city;
     }
     
-    /**
-     *
-     * @param tour
-     * @return
-     */
-    static public double tourDistance( final List<Integer> tour  )
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
     {
-        double cost = DISTANCES[ tour.get( tour.size() - 1 ) ][ tour.get( 0 ) ];
-        for ( int city = 0; city < tour.size() - 1; city ++ )
+        out.writeObject( instance );
+        VarInt.write( out, secondCity );
+        VarInt.write( out, partialCityList.size() );
+        for ( Integer city : partialCityList )
         {
-            cost += DISTANCES[ tour.get( city ) ][ tour.get( city + 1 ) ];
+            VarInt.write( out, city );
         }
-        return cost;
+        out.writeDouble( upperBound );
     }
-    
-    static private double[][] initializeDistances()
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException, ClassNotFoundException 
     {
-        double[][] distances = new double[ CITIES.length][ CITIES.length];
-        for ( int i = 0; i < CITIES.length; i++ )
-        for ( int j = 0; j < i; j++ )
+        instance = (TspInstance) in.readObject();
+        secondCity = VarInt.read( in );
+        final int size = VarInt.read( in );
+        partialCityList = new ArrayList<>( size );
+        for ( int i = 0; i < size; i++ )
         {
-            distances[ i ][ j ] = distances[ j ][ i ] = distance( CITIES[ i ], CITIES[ j ] );
+            partialCityList.add( VarInt.read( in ) );
         }
-       return distances;
+        upperBound = in.readDouble();
     }
     
-    private static double distance( final double[] city1, final double[] city2 )
+    @Override
+    public String toString()
     {
-        final double deltaX = city1[ 0 ] - city2[ 0 ];
-        final double deltaY = city1[ 1 ] - city2[ 1 ];
-        return Math.sqrt( deltaX * deltaX + deltaY * deltaY );
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append( getClass() );
+        stringBuilder.append( "\n\tCities: " );
+        stringBuilder.append( 0 ).append( " " );
+        stringBuilder.append( secondCity ).append( " " );
+        partialCityList.stream().forEach(( city ) -> 
+        {
+            stringBuilder.append( city ).append( " " );
+        } );
+        return stringBuilder.toString();
     }
 }
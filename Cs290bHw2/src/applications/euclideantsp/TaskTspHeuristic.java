@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import api.Task;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.List;
+import util.VarInt;
+
+/**
+ * Find a short tour, fast, not necessarily the shortest: 
+ * the nearest-neighbour tour from startCity, improved by local search 
+ * until neither a 2-opt move (reversing a segment) nor an Or-opt move 
+ * (moving a segment of at most OR_OPT_LENGTH cities elsewhere, either way round) shortens it.
+ * Tasks of a job differ in their startCity, so they find different local optima.
+ * Distances are read from the packed DistanceMatrix, so instances too large 
+ * to search exactly can be searched this way.
+ * The task returns its tour rotated to start with city 0.
+ * Its wire form is the TspInstance, then startCity as a VarInt.
+ * @author Peter Cappello
+ */
+public class TaskTspHeuristic implements Task<List<Integer>>, Externalizable
+{
+    /**
+     * The most cities moved by an Or-opt move.
+     */
+    static final public int OR_OPT_LENGTH = 3;
+    static final private double EPSILON = 1e-10;
+    
+    private TspInstance instance;
+    private int startCity;
+    
+    // search state, built in call
+    private DistanceMatrix distances;
+    
+    /**
+     * For deserialization only.
+     */
+    public TaskTspHeuristic() {}
+    
+    /**
+     * @param instance the instance.
+     * @param startCity the city from which the nearest-neighbour tour starts.
+     */
+    public TaskTspHeuristic( final TspInstance instance, final int startCity )
+    {
+        this.instance = instance;
+        this.startCity = startCity;
+    }
+    
+    /**
+     * Compute a locally optimal tour.
+     * @return the tour, starting with city 0.
+     */
+    @Override
+    public List<Integer> call() 
+    {
+        distances = instance.distances();
+        final int[] tour = rotate( nearestNeighbourTour() );
+        for ( boolean isImproved = true; isImproved; )
+        {
+            twoOpt( tour );
+            isImproved = orOpt( tour );
+        }
+        return new Tour( tour );
+    }
+    
+    /*
+     * The tour from startCity that always goes next to the nearest unvisited city.
+     */
+    private int[] nearestNeighbourTour()
+    {
+        final int numCities = instance.numCities();
+        final boolean[] isVisited = new boolean[ numCities ];
+        final int[] nearestNeighbourTour = new int[ numCities ];
+        nearestNeighbourTour[ 0 ] = startCity;
+        isVisited[ startCity ] = true;
+        for ( int i = 1; i < numCities; i++ )
+        {
+            final int lastCity = nearestNeighbourTour[ i - 1 ];
+            int nearestCity = -1;
+            double nearestDistance = Double.MAX_VALUE;
+            for ( int city = 0; city < numCities; city++ )
+            {
+                if ( ! isVisited[ city ] && distances.get( lastCity, city ) < nearestDistance )
+                {
+                    nearestCity = city;
+                    nearestDistance = distances.get( lastCity, city );
+                }
+            }
+            nearestNeighbourTour[ i ] = nearestCity;
+            isVisited[ nearestCity ] = true;
+        }
+        return nearestNeighbourTour;
+    }
+    
+    /*
+     * The same tour, starting with city 0.
+     */
+    static private int[] rotate( final int[] tour )
+    {
+        int zero = 0;
+        while ( tour[ zero ] != 0 )
+        {
+            zero++;
+        }
+        final int[] rotatedTour = new int[ tour.length ];
+        System.arraycopy( tour, zero, rotatedTour, 0, tour.length - zero );
+        System.arraycopy( tour, 0, rotatedTour, tour.length - zero, zero );
+        return rotatedTour;
+    }
+    
+    /*
+     * Reverse segments of the tour while doing so shortens it; city 0 stays first.
+     */
+    private void twoOpt( final int[] tour )
+    {
+        final int n = tour.length;
+        for ( boolean isImproved = true; isImproved; )
+        {
+            isImproved = false;
+            for ( int i = 1; i < n - 1; i++ )
+            for ( int j = i + 1; j < n; j++ )
+            {
+                final int a = tour[ i - 1 ], b = tour[ i ], c = tour[ j ], d = tour[ ( j + 1 ) % n ];
+                if ( distances.get( a, c ) + distances.get( b, d ) < distances.get( a, b ) + distances.get( c, d ) - EPSILON )
+                {
+                    for ( int from = i, to = j; from < to; from++, to-- )
+                    {
+                        final int city = tour[ from ];
+                        tour[ from ] = tour[ to ];
+                        tour[ to ] = city;
+                    }
+                    isImproved = true;
+                }
+            }
+        }
+    }
+    
+    /*
+     * Move segments tour[ i ], ..., tour[ i + length - 1 ], forward or reversed, 
+     * between tour[ j ] and its successor, when doing so shortens the tour; city 0 stays first.
+     * @return true if the tour was shortened.
+     */
+    private boolean orOpt( final int[] tour )
+    {
+        final int n = tour.length;
+        boolean isImproved = false;
+        for ( int length = 1; length <= Math.min( OR_OPT_LENGTH, n - 3 ); length++ )
+        for ( int i = 1; i + length <= n; i++ )
+        {
+            final int previous = tour[ i - 1 ], first = tour[ i ];
+            final int last = tour[ i + length - 1 ], next = tour[ ( i + length ) % n ];
+            final double removalGain = distances.get( previous, first ) + distances.get( last, next ) 
+                                     - distances.get( previous, next );
+            for ( int j = 0; j < n; j++ )
+            {
+                if ( j >= i - 1 && j <= i + length - 1 )
+                {
+                    continue; // an edge of the segment, or adjacent to it
+                }
+                final int a = tour[ j ], b = tour[ ( j + 1 ) % n ];
+                final double edge = distances.get( a, b );
+                final double forward = distances.get( a, first ) + distances.get( last, b ) - edge;
+                final double reversed = distances.get( a, last ) + distances.get( first, b ) - edge;
+                if ( Math.min( forward, reversed ) < removalGain - EPSILON )
+                {
+                    move( tour, i, length, j, reversed < forward );
+                    isImproved = true;
+                    break;
+                }
+            }
+        }
+        return isImproved;
+    }
+    
+    /*
+     * Move the segment of length cities at position i to follow the city at position j.
+     */
+    static private void move( final int[] tour, final int i, final int length, final int j, final boolean isReversed )
+    {
+        final int[] segment = Arrays.copyOfRange( tour, i, i + length );
+        if ( isReversed )
+        {
+            for ( int from = 0, to = length - 1; from < to; from++, to-- )
+            {
+                final int city = segment[ from ];
+                segment[ from ] = segment[ to ];
+                segment[ to ] = city;
+            }
+        }
+        // close the gap, then open one after j's city
+        System.arraycopy( tour, i + length, tour, i, tour.length - i - length );
+        final int position = ( j < i ? j : j - length ) + 1;
+        System.arraycopy( tour, position, tour, position + length, tour.length - length - position );
+        System.arraycopy( segment, 0, tour, position, length );
+    }
+    
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        out.writeObject( instance );
+        VarInt.write( out, startCity );
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException, ClassNotFoundException 
+    {
+        instance = (TspInstance) in.readObject();
+        startCity = VarInt.read( in );
+    }
+    
+    @Override
+    public String toString()
+    {
+        return getClass() + "\n\tStart city: " + startCity;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import util.VarInt;
+
+/**
+ * An immutable tour, held as an int array: 
+ * its wire form is its size and cities as VarInts, 1 byte per city for fewer than 128 cities.
+ * @author Peter Cappello
+ */
+public class Tour extends AbstractList<Integer> implements RandomAccess, Externalizable
+{
+    private int[] cities;
+    
+    /**
+     * For deserialization only.
+     */
+    public Tour() {}
+    
+    public Tour( final List<Integer> tour )
+    {
+        cities = new int[ tour.size() ];
+        int i = 0;
+        for ( Integer city : tour )
+        {
+            cities[ i++ ] = city;
+        }
+    }
+    
+    public Tour( final int[] cities )
+    {
+        this.cities = cities.clone();
+    }
+    
+    @Override
+    public Integer get( final int index ) { return cities[ index ]; }
+
+    @Override
+    public int size() { return cities.length; }
+
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        VarInt.write( out, cities.length );
+        for ( int city : cities )
+        {
+            VarInt.write( out, city );
+        }
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException 
+    {
+        cities = new int[ VarInt.read( in ) ];
+        for ( int i = 0; i < cities.length; i++ )
+        {
+            cities[ i ] = VarInt.read( in );
+        }
+    }
+}
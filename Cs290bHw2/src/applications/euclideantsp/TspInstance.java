@@ -0,0 +1,206 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.euclideantsp;
+
+import java.io.BufferedReader;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A Euclidean TSP instance: its cities, and the DistanceMatrix between them.
+ * Tasks carry the instance, not its distances: Its DistanceMatrix is built 
+ * on first use, and memoized, a few per JVM, by the instance's id, 
+ * so a Computer builds it once for all the Tasks of a Job.
+ * Instances are loaded from TSPLIB files whose EDGE_WEIGHT_TYPE is EUC_2D or CEIL_2D;
+ * their distances are Euclidean, not rounded to integers as TSPLIB's are.
+ * Its wire form is its id, name, whether its distances are floats, and its cities.
+ * @author Peter Cappello
+ */
+final public class TspInstance implements Externalizable
+{
+    static final private int NUM_MEMOIZED = 4;
+    static final private Map<String, DistanceMatrix> DISTANCES = new LinkedHashMap<String, DistanceMatrix>( 16, 0.75f, true ) 
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, DistanceMatrix> eldest ) { return size() > NUM_MEMOIZED; }
+    };
+    
+    private String id;
+    private String name;
+    private boolean isFloat;
+    private double[][] cities;
+    private transient DistanceMatrix distances;
+    
+    /**
+     * For deserialization only.
+     */
+    public TspInstance() {}
+    
+    /**
+     * @param name the instance's name.
+     * @param cities the cities, each an {x, y} pair.
+     * @param isFloat true if its distances are held as floats.
+     */
+    public TspInstance( final String name, final double[][] cities, final boolean isFloat )
+    {
+        this.id = UUID.randomUUID().toString();
+        this.name = name;
+        this.cities = cities;
+        this.isFloat = isFloat;
+    }
+    
+    /**
+     * Load an instance from a TSPLIB file: its specification, 
+     * then its NODE_COORD_SECTION, whose nodes are numbered 1, ..., DIMENSION.
+     * @param fileName the name of the file.
+     * @param isFloat true if its distances are held as floats.
+     * @return the instance.
+     * @throws IOException if the file cannot be read, is malformed, 
+     * or is not of a Euclidean, 2-dimensional instance.
+     */
+    static public TspInstance load( final String fileName, final boolean isFloat ) throws IOException
+    {
+        try ( BufferedReader reader = Files.newBufferedReader( Paths.get( fileName ), StandardCharsets.UTF_8 ) )
+        {
+            final Map<String, String> specification = new LinkedHashMap<>();
+            String line;
+            while ( ( line = reader.readLine() ) != null && ! line.trim().startsWith( "NODE_COORD_SECTION" ) )
+            {
+                final int colon = line.indexOf( ':' );
+                if ( colon > 0 )
+                {
+                    specification.put( line.substring( 0, colon ).trim(), line.substring( colon + 1 ).trim() );
+                }
+            }
+            final String edgeWeightType = specification.get( "EDGE_WEIGHT_TYPE" );
+            if ( line == null || ! "EUC_2D".equals( edgeWeightType ) && ! "CEIL_2D".equals( edgeWeightType ) )
+            {
+                throw new IOException( fileName + ": not a EUC_2D or CEIL_2D instance with a NODE_COORD_SECTION." );
+            }
+            final double[][] cities = new double[ dimension( fileName, specification ) ][];
+            for ( int i = 0; i < cities.length; i++ )
+            {
+                line = reader.readLine();
+                final String[] fields = line == null ? new String[ 0 ] : line.trim().split( "\\s+" );
+                if ( fields.length < 3 )
+                {
+                    throw new IOException( fileName + ": " + cities.length + " nodes expected; " + i + " found." );
+                }
+                final int node = Integer.parseInt( fields[ 0 ] ) - 1;
+                if ( node < 0 || node >= cities.length || cities[ node ] != null )
+                {
+                    throw new IOException( fileName + ": bad node number: " + fields[ 0 ] );
+                }
+                cities[ node ] = new double[] { Double.parseDouble( fields[ 1 ] ), Double.parseDouble( fields[ 2 ] ) };
+            }
+            final String name = specification.getOrDefault( "NAME", Paths.get( fileName ).getFileName().toString() );
+            return new TspInstance( name, cities, isFloat );
+        }
+        catch ( NumberFormatException exception )
+        {
+            throw new IOException( fileName + ": malformed number: " + exception.getMessage(), exception );
+        }
+    }
+    
+    static private int dimension( final String fileName, final Map<String, String> specification ) throws IOException
+    {
+        final String dimension = specification.get( "DIMENSION" );
+        if ( dimension == null )
+        {
+            throw new IOException( fileName + ": no DIMENSION." );
+        }
+        return Integer.parseInt( dimension );
+    }
+    
+    public String name() { return name; }
+    
+    public int numCities() { return cities.length; }
+    
+    /**
+     * @return the cities, each an {x, y} pair; not to be modified.
+     */
+    public double[][] cities() { return cities; }
+    
+    /**
+     * @return the distances between the cities, built now, if they are not memoized.
+     */
+    public DistanceMatrix distances()
+    {
+        if ( distances == null )
+        {
+            synchronized ( DISTANCES )
+            {
+                DistanceMatrix memoized = DISTANCES.get( id );
+                if ( memoized == null )
+                {
+                    memoized = new DistanceMatrix( cities, isFloat );
+                    DISTANCES.put( id, memoized );
+                }
+                distances = memoized;
+            }
+        }
+        return distances;
+    }
+    
+    @Override
+    public void writeExternal( final ObjectOutput out ) throws IOException 
+    {
+        out.writeUTF( id );
+        out.writeUTF( name );
+        out.writeBoolean( isFloat );
+        out.writeInt( cities.length );
+        for ( double[] city : cities )
+        {
+            out.writeDouble( city[ 0 ] );
+            out.writeDouble( city[ 1 ] );
+        }
+    }
+
+    @Override
+    public void readExternal( final ObjectInput in ) throws IOException 
+    {
+        id = in.readUTF();
+        name = in.readUTF();
+        isFloat = in.readBoolean();
+        cities = new double[ in.readInt() ][];
+        for ( int i = 0; i < cities.length; i++ )
+        {
+            cities[ i ] = new double[] { in.readDouble(), in.readDouble() };
+        }
+    }
+    
+    @Override
+    public String toString() 
+    { 
+        return "TspInstance{ " + name + ": " + cities.length + " cities" + ( isFloat ? ", float distances" : "" ) + '}'; 
+    }
+}
@@ -23,14 +23,13 @@
  */
 package applications.mandelbrotset;
 
-import api.Job;
+import api.IncrementalJob;
 import api.JobRunner;
 import api.Result;
+import api.ResultStream;
 import api.Space;
 import api.Task;
 import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.rmi.RemoteException;
 import java.util.LinkedList;
@@ -39,89 +38,218 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
 
 /**
- *
+ * The iteration counts of an N_PIXELS X N_PIXELS image, flattened in row-major 
+ * order: count[ row ][ col ] is counts[ row * N_PIXELS + col ].
+ * Its first Task computes a preview: the whole image, at 1 / PREVIEW_SCALE
+ * the resolution, for 1 / PREVIEW_SCALE^2 the work of the others, which 
+ * each compute a BLOCK_SIZE X BLOCK_SIZE block. 
+ * When viewed in progress, each block is drawn as it arrives, 
+ * over the preview, on the event dispatch thread, which paints the image.
  * @author Peter Cappello
  */
-public class JobMandelbrotSet implements Job<Integer[][]>
+public class JobMandelbrotSet implements IncrementalJob<int[]>
 {
     static public final double LOWER_LEFT_X = -0.7510975859375;
     static public final double LOWER_LEFT_Y = 0.1315680625;
     static public final double EDGE_LENGTH = 0.01611;
     static public final int N_PIXELS = 1024;
     static public final int ITERATION_LIMIT = 512;
-    static public final int BLOCK_SIZE = 256;
+    static public final int BLOCK_SIZE = 64;
+    static public final int PREVIEW_SCALE = 8;
+    static final int PREVIEW = -1; // the blockRow of the preview
     
            private List<Task> taskList;
-           private Integer[][] counts;
+           private int[] counts;
+           private final Kernel kernel;
+           private final int iterationLimit;
+           private BufferedImage image;     // the view in progress, if any
+           private JLabel        imageLabel;
+           private boolean[]     isBlockDrawn;
+    
+    public JobMandelbrotSet() { this( Kernel.LANES ); }
+    
+    /**
+     * @param kernel the Kernel with which Tasks compute iteration counts.
+     */
+    public JobMandelbrotSet( Kernel kernel ) { this( kernel, ITERATION_LIMIT ); }
+    
+    /**
+     * For subclasses that view another region: See previewTask and task.
+     * @param kernel the Kernel with which Tasks compute iteration counts.
+     * @param iterationLimit the limit of the Mandelbrot set recurrence.
+     */
+    protected JobMandelbrotSet( Kernel kernel, int iterationLimit ) 
+    { 
+        this.kernel = kernel; 
+        this.iterationLimit = iterationLimit;
+    }
     
-    public JobMandelbrotSet() {}
+    /**
+     * @return the limit of the Mandelbrot set recurrence.
+     */
+    protected int iterationLimit() { return iterationLimit; }
     
     @Override
     public List<Task> decompose() throws RemoteException
     {
         taskList = new LinkedList<>();
+        taskList.add( previewTask() );
         final int numBlocks = N_PIXELS / BLOCK_SIZE;
-        double edgeLength = EDGE_LENGTH / numBlocks;
         for ( int blockRow = 0; blockRow < numBlocks; blockRow++ )
         {
             for ( int blockCol = 0; blockCol < numBlocks; blockCol++ )
             {
-                final double lowerLeftX = LOWER_LEFT_X + edgeLength * blockRow;
-                final double lowerLeftY = LOWER_LEFT_Y + edgeLength * blockCol ;
-                Task task = new TaskMandelbrotSet( lowerLeftX, lowerLeftY, edgeLength , BLOCK_SIZE, ITERATION_LIMIT, blockRow, blockCol );
-                taskList.add( task );
+                taskList.add( task( blockRow, blockCol ) );
             }
         }
         return taskList;
     }
+    
+    /**
+     * @return the Task that computes the whole image at N_PIXELS / PREVIEW_SCALE 
+     * pixels on an edge, returning blockRow and blockCol PREVIEW.
+     */
+    protected Task previewTask()
+    {
+        return new TaskMandelbrotSet( LOWER_LEFT_X, LOWER_LEFT_Y, EDGE_LENGTH, N_PIXELS / PREVIEW_SCALE, iterationLimit, PREVIEW, PREVIEW, kernel );
+    }
+    
+    /**
+     * @return the Task that computes block[ blockRow ][ blockCol ] of the image, 
+     * where blockRow runs along the x axis, and blockCol, along the y axis.
+     */
+    protected Task task( int blockRow, int blockCol )
+    {
+        final double edgeLength = EDGE_LENGTH / ( N_PIXELS / BLOCK_SIZE );
+        final double lowerLeftX = LOWER_LEFT_X + edgeLength * blockRow;
+        final double lowerLeftY = LOWER_LEFT_Y + edgeLength * blockCol ;
+        return new TaskMandelbrotSet( lowerLeftX, lowerLeftY, edgeLength , BLOCK_SIZE, iterationLimit, blockRow, blockCol, kernel );
+    }
 
     @Override
     public void compose( Space space ) throws RemoteException 
     {
-        counts = new Integer[N_PIXELS][N_PIXELS];
-        for ( Task task : taskList ) 
+        counts = new int[ N_PIXELS * N_PIXELS ];
+        isBlockDrawn = new boolean[ ( N_PIXELS / BLOCK_SIZE ) * ( N_PIXELS / BLOCK_SIZE ) ];
+        try ( ResultStream resultStream = new ResultStream( space ) )
         {
-            final Result<ResultValueMandelbrotSet> result = space.take();
-            final ResultValueMandelbrotSet resultValue = result.getTaskReturnValue();
-            
-            // copy blockCounts into counts array
-            Integer[][] blockCounts = resultValue.counts();
-            int blockRow = resultValue.blockRow();
-            int blockCol = resultValue.blockCol();
-            for ( int row = 0; row < BLOCK_SIZE; row++ )
+            for ( Task task : taskList ) 
             {
-                System.arraycopy( blockCounts[row], 0, counts[blockRow * BLOCK_SIZE + row], blockCol * BLOCK_SIZE, BLOCK_SIZE );
+                final Result<ResultValueMandelbrotSet> result = resultStream.take();
+                final ResultValueMandelbrotSet resultValue = result.getTaskReturnValue();
+                final int[] blockCounts = resultValue.counts();
+                final int blockRow = resultValue.blockRow();
+                final int blockCol = resultValue.blockCol();
+                if ( blockRow == PREVIEW )
+                {
+                    SwingUtilities.invokeLater( () -> drawPreview( blockCounts ) );
+                    continue;
+                }
+
+                // copy blockCounts into counts array
+                for ( int row = 0; row < BLOCK_SIZE; row++ )
+                {
+                    System.arraycopy( blockCounts, row * BLOCK_SIZE, counts, ( blockRow * BLOCK_SIZE + row ) * N_PIXELS + blockCol * BLOCK_SIZE, BLOCK_SIZE );
+                }
+                SwingUtilities.invokeLater( () -> drawBlock( blockRow, blockCol ) );
+                Logger.getLogger(this.getClass().getCanonicalName() ).log(Level.INFO, "Task time: {0} ms.", result.getTaskRunTime() );
             }
-            Logger.getLogger(this.getClass().getCanonicalName() ).log(Level.INFO, "Task time: {0} ms.", result.getTaskRunTime() );
         }
     }
 
     @Override
-    public Integer[][] value() { return counts; }
+    public int[] value() { return counts; }
 
     @Override
-    public JLabel viewResult( Integer[][] counts ) 
+    public JLabel viewResult( int[] counts ) 
+    {
+        final BufferedImage resultImage = new BufferedImage( N_PIXELS, N_PIXELS, BufferedImage.TYPE_INT_ARGB );
+        for ( int row = 0; row < N_PIXELS; row++ )
+            for ( int col = 0; col < N_PIXELS; col++ )
+            {
+                draw( resultImage, counts, N_PIXELS, row, col, 1 );
+            }
+        return new JLabel( new ImageIcon( resultImage ) );
+    }
+    
+    @Override
+    public JLabel viewInProgress()
+    {
+        image = new BufferedImage( N_PIXELS, N_PIXELS, BufferedImage.TYPE_INT_ARGB );
+        imageLabel = new JLabel( new ImageIcon( image ) );
+        return imageLabel;
+    }
+    
+    /**
+     * Draw the preview's pixels that are not in blocks already drawn.
+     * Called on the event dispatch thread, as is drawBlock: isBlockDrawn is confined to it.
+     */
+    private void drawPreview( final int[] previewCounts )
+    {
+        if ( image == null )
+        {
+            return;
+        }
+        final int numPixels = N_PIXELS / PREVIEW_SCALE;
+        final int numBlocks = N_PIXELS / BLOCK_SIZE;
+        for ( int row = 0; row < numPixels; row++ )
+            for ( int col = 0; col < numPixels; col++ )
+            {
+                if ( ! isBlockDrawn[ row * PREVIEW_SCALE / BLOCK_SIZE * numBlocks + col * PREVIEW_SCALE / BLOCK_SIZE ] )
+                {
+                    draw( image, previewCounts, numPixels, row, col, PREVIEW_SCALE );
+                }
+            }
+        imageLabel.repaint();
+    }
+    
+    private void drawBlock( final int blockRow, final int blockCol )
+    {
+        isBlockDrawn[ blockRow * ( N_PIXELS / BLOCK_SIZE ) + blockCol ] = true;
+        if ( image == null )
+        {
+            return;
+        }
+        for ( int row = blockRow * BLOCK_SIZE; row < ( blockRow + 1 ) * BLOCK_SIZE; row++ )
+            for ( int col = blockCol * BLOCK_SIZE; col < ( blockCol + 1 ) * BLOCK_SIZE; col++ )
+            {
+                draw( image, counts, N_PIXELS, row, col, 1 );
+            }
+        imageLabel.repaint( blockRow * BLOCK_SIZE, N_PIXELS - ( blockCol + 1 ) * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE );
+    }
+    
+    /**
+     * Draw pixel[ row ][ col ] of a numPixels X numPixels array of counts, 
+     * whose pixels are scale X scale image pixels.
+     * Rows go left to right; columns, bottom to top.
+     */
+    private void draw( final BufferedImage image, final int[] counts, final int numPixels, 
+                              final int row, final int col, final int scale )
     {
-        final Image image = new BufferedImage( N_PIXELS, N_PIXELS, BufferedImage.TYPE_INT_ARGB );
-        final Graphics graphics = image.getGraphics();
-        for ( int i = 0; i < counts.length; i++ )
-            for ( int j = 0; j < counts.length; j++ )
+        final int rgb = getColor( counts[ row * numPixels + col ] ).getRGB();
+        for ( int x = row * scale; x < ( row + 1 ) * scale; x++ )
+            for ( int y = N_PIXELS - ( col + 1 ) * scale; y < N_PIXELS - col * scale; y++ )
             {
-                graphics.setColor( getColor( counts[i][j] ) );
-                graphics.fillRect( i, N_PIXELS - j, 1, 1 );
+                image.setRGB( x, y, rgb );
             }
-        return new JLabel( new ImageIcon( image ) );
     }
     
     private Color getColor( int iterationCount )
     {
-        return iterationCount == ITERATION_LIMIT ? Color.BLACK : Color.WHITE;
+        return iterationCount == iterationLimit ? Color.BLACK : Color.WHITE;
     }
     
+    /**
+     * The system property mandelbrotset.kernel names the Kernel: SCALAR, LANES (the default), or INTERIOR.
+     * @param args unused.
+     * @throws Exception 
+     */
     public static void main( String[] args ) throws Exception
     {
-        new JobRunner<>( new JobMandelbrotSet(), "Mandelbrot Set Visualizer", "" ).run();
+        final Kernel kernel = Kernel.valueOf( System.getProperty( "mandelbrotset.kernel", Kernel.LANES.name() ) );
+        new JobRunner<>( new JobMandelbrotSet( kernel ), "Mandelbrot Set Visualizer", "" ).run();
     }
 }
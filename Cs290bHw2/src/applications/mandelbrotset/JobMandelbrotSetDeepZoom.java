@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import api.JobRunner;
+import api.Task;
+
+/**
+ * A JobMandelbrotSet for deep zooms: The square region viewed is given by 
+ * its center, in decimal, and its edge length, which may be far smaller than 
+ * double's precision at the center (about 1e-16 near the origin). 
+ * Its Tasks are TaskMandelbrotSetPerturbeds, which share the center's reference orbit.
+ * @author Peter Cappello
+ */
+public class JobMandelbrotSetDeepZoom extends JobMandelbrotSet
+{
+    static public final String CENTER_X = "-0.743643887037158704752191506114774";
+    static public final String CENTER_Y =  "0.131825904205311970493132056385139";
+    static public final double EDGE_LENGTH = 1e-20;
+    static public final int ITERATION_LIMIT = 16384;
+    
+    final private String centerX;
+    final private String centerY;
+    final private double edgeLength;
+    final private int precision;
+    
+    /**
+     * @param centerX the real part of the region's center, as a decimal String.
+     * @param centerY the imaginary part of the region's center, as a decimal String.
+     * @param edgeLength the length of the region's edge.
+     * @param iterationLimit the limit of the Mandelbrot set recurrence.
+     */
+    public JobMandelbrotSetDeepZoom( String centerX, String centerY, double edgeLength, int iterationLimit )
+    {
+        super( Kernel.SCALAR, iterationLimit );
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.edgeLength = edgeLength;
+        // enough digits to resolve a pixel, with as many again to spare
+        precision = 2 * Math.max( 16, (int) Math.ceil( -Math.log10( edgeLength / N_PIXELS ) ) );
+    }
+    
+    @Override
+    protected Task previewTask()
+    {
+        return new TaskMandelbrotSetPerturbed( centerX, centerY, precision, -edgeLength / 2, -edgeLength / 2, 
+                edgeLength, N_PIXELS / PREVIEW_SCALE, iterationLimit(), PREVIEW, PREVIEW );
+    }
+    
+    @Override
+    protected Task task( int blockRow, int blockCol )
+    {
+        final double blockEdgeLength = edgeLength / ( N_PIXELS / BLOCK_SIZE );
+        return new TaskMandelbrotSetPerturbed( centerX, centerY, precision, 
+                -edgeLength / 2 + blockEdgeLength * blockRow, -edgeLength / 2 + blockEdgeLength * blockCol, 
+                blockEdgeLength, BLOCK_SIZE, iterationLimit(), blockRow, blockCol );
+    }
+    
+    /**
+     * @param args [centerX centerY [edgeLength [iterationLimit]]]; by default,
+     * CENTER_X, CENTER_Y, EDGE_LENGTH, ITERATION_LIMIT.
+     * @throws Exception 
+     */
+    public static void main( String[] args ) throws Exception
+    {
+        final String centerX = args.length > 1 ? args[ 0 ] : CENTER_X;
+        final String centerY = args.length > 1 ? args[ 1 ] : CENTER_Y;
+        final double edgeLength = args.length > 2 ? Double.parseDouble( args[ 2 ] ) : EDGE_LENGTH;
+        final int iterationLimit = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : ITERATION_LIMIT;
+        new JobRunner<>( new JobMandelbrotSetDeepZoom( centerX, centerY, edgeLength, iterationLimit ), 
+                "Mandelbrot Set Deep Zoom", "" ).run();
+    }
+}
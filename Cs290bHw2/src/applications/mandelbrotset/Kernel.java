@@ -0,0 +1,264 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+/**
+ * Escape-time kernels: Each computes the iteration counts of a rectangle of pixels, 
+ * on primitive doubles, without allocating in its inner loop.
+ * They compute identical counts.
+ * @author Peter Cappello
+ */
+public enum Kernel 
+{
+    /**
+     * Iterate one pixel at a time.
+     */
+    SCALAR 
+    {
+        @Override
+        void counts( final double lowerLeftX, final double lowerLeftY, final double delta, 
+                     final int numPixels, final int iterationLimit, final int[] counts,
+                     final int fromRow, final int fromCol, final int numRows, final int numCols )
+        {
+            for ( int row = fromRow; row < fromRow + numRows; row++ )
+                for ( int col = fromCol; col < fromCol + numCols; col++ )
+                {
+                    counts[ row * numPixels + col ] = 
+                            iterationCount( lowerLeftX + row * delta, lowerLeftY + col * delta, iterationLimit );
+                }
+        }
+    },
+    
+    /**
+     * Iterate LANE_COUNT pixels in lockstep, so that their independent recurrences 
+     * overlap in the processor's pipelines. 
+     * When a pixel escapes, the next pixel takes its lane.
+     */
+    LANES
+    {
+        @Override
+        void counts( final double lowerLeftX, final double lowerLeftY, final double delta, 
+                     final int numPixels, final int iterationLimit, final int[] counts,
+                     final int fromRow, final int fromCol, final int numRows, final int numCols )
+        {
+            final int[] pixel = new int[ LANE_COUNT ];
+            final int[] iteration = new int[ LANE_COUNT ];
+            final double[] cReal = new double[ LANE_COUNT ];
+            final double[] cImag = new double[ LANE_COUNT ];
+            final double[] zReal = new double[ LANE_COUNT ];
+            final double[] zImag = new double[ LANE_COUNT ];
+            final int numRegionPixels = numRows * numCols;
+            int nextPixel = 0;
+            int numActive = 0;
+            for ( int lane = 0; lane < LANE_COUNT; lane++ )
+            {
+                pixel[ lane ] = -1;
+                if ( nextPixel < numRegionPixels )
+                {
+                    final int row = fromRow + nextPixel / numCols, col = fromCol + nextPixel++ % numCols;
+                    load( lane, row, col, lowerLeftX, lowerLeftY, delta, numPixels, pixel, iteration, cReal, cImag, zReal, zImag );
+                    numActive++;
+                }
+            }
+            while ( numActive > 0 )
+            {
+                for ( int lane = 0; lane < LANE_COUNT; lane++ )
+                {
+                    if ( pixel[ lane ] < 0 )
+                    {
+                        continue;
+                    }
+                    final double zr = zReal[ lane ];
+                    final double zi = zImag[ lane ];
+                    final double zrSquared = zr * zr;
+                    final double ziSquared = zi * zi;
+                    if ( zrSquared + ziSquared > 4.0 || iteration[ lane ] == iterationLimit )
+                    {
+                        counts[ pixel[ lane ] ] = iteration[ lane ];
+                        if ( nextPixel < numRegionPixels )
+                        {
+                            final int row = fromRow + nextPixel / numCols, col = fromCol + nextPixel++ % numCols;
+                            load( lane, row, col, lowerLeftX, lowerLeftY, delta, numPixels, pixel, iteration, cReal, cImag, zReal, zImag );
+                        }
+                        else
+                        {
+                            pixel[ lane ] = -1;
+                            numActive--;
+                        }
+                        continue;
+                    }
+                    zImag[ lane ] = 2 * zr * zi + cImag[ lane ];
+                    zReal[ lane ] = zrSquared - ziSquared + cReal[ lane ];
+                    iteration[ lane ]++;
+                }
+            }
+        }
+    },
+    
+    /**
+     * Iterate one pixel at a time, skipping points that provably never escape:
+     * those in the main cardioid or the period-2 bulb, and those whose orbits
+     * return to within EPSILON of an earlier point (Brent's cycle detection).
+     * Such points get count iterationLimit, as they would by iterating.
+     */
+    INTERIOR
+    {
+        @Override
+        void counts( final double lowerLeftX, final double lowerLeftY, final double delta, 
+                     final int numPixels, final int iterationLimit, final int[] counts,
+                     final int fromRow, final int fromCol, final int numRows, final int numCols )
+        {
+            for ( int row = fromRow; row < fromRow + numRows; row++ )
+                for ( int col = fromCol; col < fromCol + numCols; col++ )
+                {
+                    counts[ row * numPixels + col ] = 
+                            interiorCheckedIterationCount( lowerLeftX + row * delta, lowerLeftY + col * delta, iterationLimit );
+                }
+        }
+    };
+    
+    /**
+     * The number of pixels LANES iterates in lockstep.
+     */
+    static final public int LANE_COUNT = 8;
+    
+    /**
+     * INTERIOR takes orbit points closer than this, in each coordinate, to be equal.
+     */
+    static final public double EPSILON = 1e-14;
+    
+    /**
+     * Compute the iteration counts of a numPixels X numPixels block.
+     * @param lowerLeftX the x coordinate of the block's lower left corner.
+     * @param lowerLeftY the y coordinate of the block's lower left corner.
+     * @param delta the edge length of a pixel.
+     * @param numPixels the block's edge length, in pixels.
+     * @param iterationLimit the limit of the Mandelbrot set recurrence.
+     * @param counts receives the counts, in row-major order.
+     */
+    void counts( final double lowerLeftX, final double lowerLeftY, final double delta, 
+                 final int numPixels, final int iterationLimit, final int[] counts )
+    {
+        counts( lowerLeftX, lowerLeftY, delta, numPixels, iterationLimit, counts, 0, 0, numPixels, numPixels );
+    }
+    
+    /**
+     * Compute the iteration counts of a numRows X numCols rectangle of a
+     * numPixels X numPixels block, leaving the block's other counts unchanged.
+     * @param fromRow the rectangle's first row.
+     * @param fromCol the rectangle's first column.
+     * @param numRows the rectangle's number of rows.
+     * @param numCols the rectangle's number of columns.
+     * (See above for the other parameters.)
+     */
+    abstract void counts( double lowerLeftX, double lowerLeftY, double delta, 
+                          int numPixels, int iterationLimit, int[] counts,
+                          int fromRow, int fromCol, int numRows, int numCols );
+    
+    /**
+     * @return the number of iterations of z = z * z + c, from z = c, 
+     * before |z| exceeds 2, or iterationLimit, if it does not.
+     */
+    static int iterationCount( final double cReal, final double cImag, final int iterationLimit )
+    {
+        double zReal = cReal;
+        double zImag = cImag;
+        int iteration = 0;
+        for ( ; iteration < iterationLimit; iteration++ )
+        {
+            final double zRealSquared = zReal * zReal;
+            final double zImagSquared = zImag * zImag;
+            if ( zRealSquared + zImagSquared > 4.0 )
+            {
+                break;
+            }
+            zImag = 2 * zReal * zImag + cImag;
+            zReal = zRealSquared - zImagSquared + cReal;
+        }
+        return iteration;
+    }
+    
+    /**
+     * As iterationCount, skipping interior points: See INTERIOR.
+     */
+    static int interiorCheckedIterationCount( final double cReal, final double cImag, final int iterationLimit )
+    {
+        if ( isInCardioidOrBulb( cReal, cImag ) )
+        {
+            return iterationLimit;
+        }
+        double zReal = cReal;
+        double zImag = cImag;
+        double savedReal = zReal;
+        double savedImag = zImag;
+        int period = 0, power = 1;
+        int iteration = 0;
+        for ( ; iteration < iterationLimit; iteration++ )
+        {
+            final double zRealSquared = zReal * zReal;
+            final double zImagSquared = zImag * zImag;
+            if ( zRealSquared + zImagSquared > 4.0 )
+            {
+                break;
+            }
+            zImag = 2 * zReal * zImag + cImag;
+            zReal = zRealSquared - zImagSquared + cReal;
+            if ( Math.abs( zReal - savedReal ) < EPSILON && Math.abs( zImag - savedImag ) < EPSILON )
+            {
+                return iterationLimit; // the orbit is periodic
+            }
+            if ( ++period == power )
+            {
+                savedReal = zReal;
+                savedImag = zImag;
+                period = 0;
+                power *= 2;
+            }
+        }
+        return iteration;
+    }
+    
+    /**
+     * @return true if and only if c is in the Mandelbrot set's main cardioid or period-2 bulb.
+     */
+    static boolean isInCardioidOrBulb( final double cReal, final double cImag )
+    {
+        final double x = cReal - 0.25;
+        final double imagSquared = cImag * cImag;
+        final double q = x * x + imagSquared;
+        return q * ( q + x ) <= 0.25 * imagSquared 
+            || ( cReal + 1 ) * ( cReal + 1 ) + imagSquared <= 0.0625;
+    }
+    
+    static private void load( final int lane, final int row, final int col, 
+                              final double lowerLeftX, final double lowerLeftY, final double delta, final int numPixels,
+                              final int[] pixel, final int[] iteration, final double[] cReal, final double[] cImag, 
+                              final double[] zReal, final double[] zImag )
+    {
+        pixel[ lane ] = row * numPixels + col;
+        iteration[ lane ] = 0;
+        zReal[ lane ] = cReal[ lane ] = lowerLeftX + row * delta;
+        zImag[ lane ] = cImag[ lane ] = lowerLeftY + col * delta;
+    }
+}
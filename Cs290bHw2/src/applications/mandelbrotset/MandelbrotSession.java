@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import api.JobRunner;
+import api.Result;
+import api.ResultStream;
+import api.Space;
+import api.Task;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.ImageIcon;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * An interactive view of the Mandelbrot set that can be panned and zoomed.
+ * Each zoom level has a grid of TILE_SIZE X TILE_SIZE pixel tiles, 
+ * whose pixels are 2^-level times as large as JobMandelbrotSet's. 
+ * A view is composed of the tiles that it overlaps: 
+ * Only those missing from the TileCache are computed, as Tasks on the Space;
+ * so a pan computes only the tiles that it uncovers, and a return to an 
+ * earlier view computes none, while they are cached.
+ * <p>
+ * Usage: java applications.mandelbrotset.MandelbrotSession [domainName [tileDirectory]]
+ * <br>
+ * Keys: arrows pan; + and - zoom in and out, about the center; 
+ * ] and [ double and halve the iteration limit.
+ * <p>
+ * The view is guarded by the session's lock, which is held only to change or copy it:
+ * A render computes its copy without it, so the view may change meanwhile. 
+ * Renders are serialized by renderLock, since they share the Space's Results.
+ * @author Peter Cappello
+ */
+public class MandelbrotSession 
+{
+    static public final int N_PIXELS = JobMandelbrotSet.N_PIXELS;
+    static public final int TILE_SIZE = JobMandelbrotSet.BLOCK_SIZE;
+    static public final int CACHE_CAPACITY = 4096; // tiles: 64 MB of 64 X 64 tiles
+    static final private double INITIAL_DELTA = JobMandelbrotSet.EDGE_LENGTH / N_PIXELS;
+    
+    final private Space space;
+    final private TileCache tileCache;
+    final private Kernel kernel;
+    final private Object renderLock = new Object();
+          private int  iterationLimit;
+          private int  level;
+          private long viewX; // the position of the view's lower left pixel, in its level's grid
+          private long viewY;
+          private int  numTilesComputed;
+    
+    /**
+     * The session's initial view is JobMandelbrotSet's.
+     * @param space the Space on which tiles are computed.
+     * @param iterationLimit the initial iteration limit.
+     * @param tileCache the cache of tiles.
+     * @param kernel the Kernel with which Tasks compute iteration counts.
+     */
+    public MandelbrotSession( Space space, int iterationLimit, TileCache tileCache, Kernel kernel )
+    {
+        this.space = space;
+        this.iterationLimit = iterationLimit;
+        this.tileCache = tileCache;
+        this.kernel = kernel;
+        viewX = Math.round( JobMandelbrotSet.LOWER_LEFT_X / INITIAL_DELTA );
+        viewY = Math.round( JobMandelbrotSet.LOWER_LEFT_Y / INITIAL_DELTA );
+    }
+    
+    /**
+     * Move the view.
+     * @param dx the number of pixels to move right.
+     * @param dy the number of pixels to move up.
+     */
+    synchronized public void pan( int dx, int dy )
+    {
+        viewX += dx;
+        viewY += dy;
+    }
+    
+    /**
+     * Halve the view's edge length, keeping its center.
+     */
+    synchronized public void zoomIn()
+    {
+        level++;
+        viewX = 2 * ( viewX + N_PIXELS / 2 ) - N_PIXELS / 2;
+        viewY = 2 * ( viewY + N_PIXELS / 2 ) - N_PIXELS / 2;
+    }
+    
+    /**
+     * Double the view's edge length, keeping its center.
+     */
+    synchronized public void zoomOut()
+    {
+        level--;
+        viewX = Math.floorDiv( viewX + N_PIXELS / 2, 2 ) - N_PIXELS / 2;
+        viewY = Math.floorDiv( viewY + N_PIXELS / 2, 2 ) - N_PIXELS / 2;
+    }
+    
+    synchronized public void setIterationLimit( int iterationLimit ) { this.iterationLimit = iterationLimit; }
+    
+    synchronized public int iterationLimit() { return iterationLimit; }
+    
+    /**
+     * @return the number of tiles that the last render computed, rather than took from the cache.
+     */
+    synchronized public int numTilesComputed() { return numTilesComputed; }
+    
+    /**
+     * A rendered view: its iteration counts, with the iteration limit they were computed with.
+     */
+    static public class Rendering
+    {
+        final private int[] counts;
+        final private int iterationLimit;
+        
+        Rendering( int[] counts, int iterationLimit )
+        {
+            this.counts = counts;
+            this.iterationLimit = iterationLimit;
+        }
+        
+        /**
+         * @return the counts of the view's N_PIXELS X N_PIXELS pixels, in 
+         * row-major order, as JobMandelbrotSet's value.
+         */
+        public int[] counts() { return counts; }
+        
+        public int iterationLimit() { return iterationLimit; }
+    }
+    
+    /**
+     * Compute the view's iteration counts, computing only the tiles that are not cached.
+     * The view is copied when the render begins; later changes to it are not reflected.
+     * @return the view's counts, with their iteration limit.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    public Rendering render() throws RemoteException
+    {
+        synchronized ( renderLock )
+        {
+            final int level, iterationLimit;
+            final long viewX, viewY;
+            synchronized ( this )
+            {
+                level = this.level;
+                iterationLimit = this.iterationLimit;
+                viewX = this.viewX;
+                viewY = this.viewY;
+            }
+            return render( level, viewX, viewY, iterationLimit );
+        }
+    }
+    
+    private Rendering render( int level, long viewX, long viewY, int iterationLimit ) throws RemoteException
+    {
+        final double delta = Math.scalb( INITIAL_DELTA, -level );
+        final long firstTileX = Math.floorDiv( viewX, TILE_SIZE ), firstTileY = Math.floorDiv( viewY, TILE_SIZE );
+        final int numTilesX = (int) ( Math.floorDiv( viewX + N_PIXELS - 1, TILE_SIZE ) - firstTileX + 1 );
+        final int numTilesY = (int) ( Math.floorDiv( viewY + N_PIXELS - 1, TILE_SIZE ) - firstTileY + 1 );
+        
+        // take the cached tiles; make a Task for each missing tile
+        final int[][][] tiles = new int[ numTilesX ][ numTilesY ][];
+        final TileCache.Key[][] keys = new TileCache.Key[ numTilesX ][ numTilesY ];
+        final List<Task> taskList = new ArrayList<>();
+        for ( int i = 0; i < numTilesX; i++ )
+            for ( int j = 0; j < numTilesY; j++ )
+            {
+                final long tileX = firstTileX + i, tileY = firstTileY + j;
+                keys[ i ][ j ] = new TileCache.Key( level, tileX, tileY, TILE_SIZE, iterationLimit );
+                tiles[ i ][ j ] = tileCache.get( keys[ i ][ j ] );
+                if ( tiles[ i ][ j ] == null )
+                {
+                    // blockRow & blockCol locate the tile in tiles
+                    taskList.add( new TaskMandelbrotSet( tileX * TILE_SIZE * delta, tileY * TILE_SIZE * delta, 
+                            TILE_SIZE * delta, TILE_SIZE, iterationLimit, i, j, kernel ) );
+                }
+            }
+        synchronized ( this ) { numTilesComputed = taskList.size(); }
+        if ( ! taskList.isEmpty() )
+        {
+            space.putAll( taskList );
+            try ( ResultStream resultStream = new ResultStream( space ) )
+            {
+                for ( Task task : taskList )
+                {
+                    final Result<ResultValueMandelbrotSet> result = resultStream.take();
+                    final ResultValueMandelbrotSet resultValue = result.getTaskReturnValue();
+                    final int i = resultValue.blockRow(), j = resultValue.blockCol();
+                    tiles[ i ][ j ] = resultValue.counts();
+                    tileCache.put( keys[ i ][ j ], tiles[ i ][ j ] );
+                }
+            }
+        }
+        Logger.getLogger( getClass().getCanonicalName() ).log( Level.INFO, "View: level {0}, {1} tiles, {2} computed.", 
+                new Object[] { level, numTilesX * numTilesY, taskList.size() } );
+        
+        // copy the tiles' overlap with the view into counts
+        final int[] counts = new int[ N_PIXELS * N_PIXELS ];
+        for ( int row = 0; row < N_PIXELS; row++ )
+        {
+            final long x = viewX + row;
+            final int i = (int) ( Math.floorDiv( x, TILE_SIZE ) - firstTileX );
+            final int tileRow = (int) Math.floorMod( x, TILE_SIZE );
+            for ( int j = 0; j < numTilesY; j++ )
+            {
+                final long tileY = ( firstTileY + j ) * TILE_SIZE;
+                final long fromY = Math.max( viewY, tileY ), toY = Math.min( viewY + N_PIXELS, tileY + TILE_SIZE );
+                System.arraycopy( tiles[ i ][ j ], tileRow * TILE_SIZE + (int) ( fromY - tileY ), 
+                                  counts, row * N_PIXELS + (int) ( fromY - viewY ), (int) ( toY - fromY ) );
+            }
+        }
+        return new Rendering( counts, iterationLimit );
+    }
+    
+    /**
+     * @param args [domainName [tileDirectory]]: If domainName is absent or empty, 
+     * tiles are computed in this JVM; if tileDirectory is absent, the cache is in memory only.
+     * @throws Exception 
+     */
+    public static void main( String[] args ) throws Exception
+    {
+        System.setSecurityManager( new SecurityManager() );
+        final String domainName = args.length > 0 ? args[ 0 ] : "";
+        final File directory = args.length > 1 ? new File( args[ 1 ] ) : null;
+        final MandelbrotSession session = new MandelbrotSession( JobRunner.space( domainName ).newJob( 1 ), 
+                JobMandelbrotSet.ITERATION_LIMIT, new TileCache( CACHE_CAPACITY, directory ), Kernel.LANES );
+        
+        final BufferedImage image = new BufferedImage( N_PIXELS, N_PIXELS, BufferedImage.TYPE_INT_ARGB );
+        final JLabel imageLabel = new JLabel( new ImageIcon( image ) );
+        final ExecutorService renderer = Executors.newSingleThreadExecutor();
+        final AtomicBoolean isRenderPending = new AtomicBoolean();
+        final Runnable render = () -> 
+        {
+            isRenderPending.set( false ); // key presses from now on need another render
+            try 
+            {
+                final Rendering rendering = session.render();
+                final int[] counts = rendering.counts();
+                final int iterationLimit = rendering.iterationLimit();
+                SwingUtilities.invokeLater( () -> // the image is painted on the event dispatch thread
+                {
+                    for ( int row = 0; row < N_PIXELS; row++ )
+                        for ( int col = 0; col < N_PIXELS; col++ )
+                        {
+                            image.setRGB( row, N_PIXELS - 1 - col, 
+                                    ( counts[ row * N_PIXELS + col ] == iterationLimit ? Color.BLACK : Color.WHITE ).getRGB() );
+                        }
+                    imageLabel.repaint();
+                } );
+            } 
+            catch ( RemoteException exception ) 
+            {
+                Logger.getLogger( MandelbrotSession.class.getCanonicalName() ).log( Level.SEVERE, null, exception );
+            }
+        };
+        SwingUtilities.invokeLater( () -> 
+        {
+            final JFrame frame = new JFrame( "Mandelbrot Set Session" );
+            frame.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
+            frame.getContentPane().add( imageLabel, BorderLayout.CENTER );
+            frame.addKeyListener( new KeyAdapter() 
+            {
+                @Override
+                public void keyPressed( KeyEvent event )
+                {
+                    switch ( event.getKeyCode() )
+                    {
+                        case KeyEvent.VK_LEFT:  session.pan( -N_PIXELS / 4, 0 ); break;
+                        case KeyEvent.VK_RIGHT: session.pan(  N_PIXELS / 4, 0 ); break;
+                        case KeyEvent.VK_DOWN:  session.pan( 0, -N_PIXELS / 4 ); break;
+                        case KeyEvent.VK_UP:    session.pan( 0,  N_PIXELS / 4 ); break;
+                        default:
+                            switch ( event.getKeyChar() )
+                            {
+                                case '+': case '=': session.zoomIn(); break;
+                                case '-': session.zoomOut(); break;
+                                case ']': session.setIterationLimit( 2 * session.iterationLimit() ); break;
+                                case '[': session.setIterationLimit( Math.max( 1, session.iterationLimit() / 2 ) ); break;
+                                default: return;
+                            }
+                    }
+                    if ( isRenderPending.compareAndSet( false, true ) )
+                    {
+                        renderer.execute( render ); // else the pending render shows this change, too
+                    }
+                }
+            } );
+            frame.pack();
+            frame.setVisible( true );
+        } );
+        isRenderPending.set( true );
+        renderer.execute( render );
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The orbit Z[ 0 ] = 0, Z[ n + 1 ] = Z[ n ] * Z[ n ] + C of a reference point C, 
+ * computed in BigDecimal arithmetic, and rounded to doubles, for perturbation:
+ * Pixels near C iterate only their difference from it, in double arithmetic.
+ * The orbit ends when it escapes, or after iterationLimit + 1 iterations.
+ * <p>
+ * Orbits are memoized, a few per JVM, so a Computer computes one 
+ * once for all the Tasks of a Job.
+ * @author Peter Cappello
+ */
+final public class ReferenceOrbit 
+{
+    static final private int NUM_MEMOIZED = 4;
+    static final private Map<String, ReferenceOrbit> ORBITS = new LinkedHashMap<String, ReferenceOrbit>( 16, 0.75f, true ) 
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, ReferenceOrbit> eldest ) { return size() > NUM_MEMOIZED; }
+    };
+    
+    final private double[] real;
+    final private double[] imag;
+    
+    private ReferenceOrbit( final String centerX, final String centerY, final int precision, final int iterationLimit )
+    {
+        final MathContext mathContext = new MathContext( precision );
+        final BigDecimal cReal = new BigDecimal( centerX, mathContext );
+        final BigDecimal cImag = new BigDecimal( centerY, mathContext );
+        final BigDecimal two = BigDecimal.valueOf( 2 );
+        final double[] orbitReal = new double[ iterationLimit + 2 ];
+        final double[] orbitImag = new double[ iterationLimit + 2 ];
+        BigDecimal zReal = BigDecimal.ZERO;
+        BigDecimal zImag = BigDecimal.ZERO;
+        int length = 1; // orbit[ 0 ] = 0
+        while ( length < orbitReal.length )
+        {
+            final BigDecimal zRealSquared = zReal.multiply( zReal, mathContext );
+            final BigDecimal zImagSquared = zImag.multiply( zImag, mathContext );
+            zImag = two.multiply( zReal ).multiply( zImag, mathContext ).add( cImag, mathContext );
+            zReal = zRealSquared.subtract( zImagSquared ).add( cReal, mathContext );
+            orbitReal[ length ] = zReal.doubleValue();
+            orbitImag[ length ] = zImag.doubleValue();
+            length++;
+            if ( orbitReal[ length - 1 ] * orbitReal[ length - 1 ] + orbitImag[ length - 1 ] * orbitImag[ length - 1 ] > 4.0 )
+            {
+                break;
+            }
+        }
+        real = Arrays.copyOf( orbitReal, length );
+        imag = Arrays.copyOf( orbitImag, length );
+    }
+    
+    /**
+     * @param centerX the real part of C, as a decimal String.
+     * @param centerY the imaginary part of C, as a decimal String.
+     * @param precision the number of significant digits of the orbit's computation.
+     * @param iterationLimit the limit of the Mandelbrot set recurrence.
+     * @return the orbit of C, computed now, if it is not memoized.
+     */
+    static public ReferenceOrbit of( String centerX, String centerY, int precision, int iterationLimit )
+    {
+        final String key = centerX + ',' + centerY + ',' + precision + ',' + iterationLimit;
+        synchronized ( ORBITS )
+        {
+            ReferenceOrbit orbit = ORBITS.get( key );
+            if ( orbit == null )
+            {
+                orbit = new ReferenceOrbit( centerX, centerY, precision, iterationLimit );
+                ORBITS.put( key, orbit );
+            }
+            return orbit;
+        }
+    }
+    
+    /**
+     * @return the number of points in the orbit, including Z[ 0 ].
+     */
+    public int length() { return real.length; }
+    
+    /**
+     * The iteration count of the point C + deltaC, by perturbation:
+     * z[ n ] = Z[ m ] + dz, where dz[ m + 1 ] = 2 * Z[ m ] * dz + dz * dz + deltaC. 
+     * When |z| falls below |dz|, or the orbit ends, 
+     * dz is rebased onto Z[ 0 ] = 0 (dz = z, m = 0): This keeps dz small
+     * relative to z, which avoids the precision loss that otherwise 
+     * corrupts ("glitches") pixels whose orbits diverge from the reference.
+     * @param deltaCReal the real part of deltaC.
+     * @param deltaCImag the imaginary part of deltaC.
+     * @param iterationLimit the limit of the Mandelbrot set recurrence.
+     * @return the number of iterations of z = z * z + c, from z = c, 
+     * before |z| exceeds 2, or iterationLimit, if it does not.
+     */
+    int iterationCount( final double deltaCReal, final double deltaCImag, final int iterationLimit )
+    {
+        final int last = real.length - 1;
+        double dzReal = deltaCReal; // dz[ 1 ], since Z[ 1 ] = C and z[ 1 ] = c
+        double dzImag = deltaCImag;
+        int m = 1;
+        for ( int iteration = 0; iteration < iterationLimit; iteration++ )
+        {
+            final double zReal = real[ m ] + dzReal;
+            final double zImag = imag[ m ] + dzImag;
+            final double zSizeSquared = zReal * zReal + zImag * zImag;
+            if ( zSizeSquared > 4.0 )
+            {
+                return iteration;
+            }
+            if ( m == last || zSizeSquared < dzReal * dzReal + dzImag * dzImag )
+            {
+                dzReal = zReal;
+                dzImag = zImag;
+                m = 0;
+            }
+            final double temp = 2 * ( real[ m ] * dzReal - imag[ m ] * dzImag ) + dzReal * dzReal - dzImag * dzImag + deltaCReal;
+            dzImag = 2 * ( real[ m ] * dzImag + imag[ m ] * dzReal ) + 2 * dzReal * dzImag + deltaCImag;
+            dzReal = temp;
+            m++;
+        }
+        return iterationLimit;
+    }
+}
@@ -4,24 +4,210 @@
  */
 package applications.mandelbrotset;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import util.VarInt;
+
 /**
- *
+ * The iteration counts of a numPixels X numPixels block of pixels, 
+ * flattened in row-major order: count[ row ][ col ] is counts[ row * numPixels + col ].
+ * Its wire form is the block's position and edge length, followed by its
+ * counts in whichever Encoding is smallest for them.
  * @author Peter Cappello
  */
-final public class ResultValueMandelbrotSet 
+final public class ResultValueMandelbrotSet implements Externalizable
 {
-    final private Integer[][] counts;
-    final private int blockRow;
-    final private int blockCol;
+    /**
+     * Ways of writing a block's counts, all built on VarInts.
+     */
+    enum Encoding
+    {
+        /**
+         * Each count: 1 or 2 bytes, for iteration limits below 16384.
+         */
+        VARINT,
+        
+        /**
+         * Each count's difference from its predecessor, zigzag encoded:
+         * 1 byte for differences in [ -64, 63 ], which is typical of smooth regions.
+         */
+        DELTA,
+        
+        /**
+         * Each maximal run of equal counts as ( count, run length ):
+         * Regions in the set, all at the iteration limit, cost a few bytes.
+         */
+        RUN_LENGTH;
+        
+        /**
+         * @return the number of bytes this encoding writes for counts.
+         */
+        int size( final int[] counts )
+        {
+            int size = 0;
+            switch ( this )
+            {
+                case VARINT:
+                    for ( int count : counts )
+                    {
+                        size += VarInt.size( count );
+                    }
+                    break;
+                case DELTA:
+                    for ( int i = 0, previous = 0; i < counts.length; previous = counts[ i++ ] )
+                    {
+                        size += VarInt.size( VarInt.zigZag( counts[ i ] - previous ) );
+                    }
+                    break;
+                case RUN_LENGTH:
+                    for ( int i = 0, runEnd; i < counts.length; i = runEnd )
+                    {
+                        runEnd = runEnd( counts, i );
+                        size += VarInt.size( counts[ i ] ) + VarInt.size( runEnd - i );
+                    }
+                    break;
+            }
+            return size;
+        }
+        
+        void write( final ObjectOutput out, final int[] counts ) throws IOException
+        {
+            switch ( this )
+            {
+                case VARINT:
+                    for ( int count : counts )
+                    {
+                        VarInt.write( out, count );
+                    }
+                    break;
+                case DELTA:
+                    for ( int i = 0, previous = 0; i < counts.length; previous = counts[ i++ ] )
+                    {
+                        VarInt.write( out, VarInt.zigZag( counts[ i ] - previous ) );
+                    }
+                    break;
+                case RUN_LENGTH:
+                    for ( int i = 0, runEnd; i < counts.length; i = runEnd )
+                    {
+                        runEnd = runEnd( counts, i );
+                        VarInt.write( out, counts[ i ] );
+                        VarInt.write( out, runEnd - i );
+                    }
+                    break;
+            }
+        }
+        
+        void read( final ObjectInput in, final int[] counts ) throws IOException
+        {
+            switch ( this )
+            {
+                case VARINT:
+                    for ( int i = 0; i < counts.length; i++ )
+                    {
+                        counts[ i ] = VarInt.read( in );
+                    }
+                    break;
+                case DELTA:
+                    for ( int i = 0, previous = 0; i < counts.length; previous = counts[ i++ ] )
+                    {
+                        counts[ i ] = previous + VarInt.unZigZag( VarInt.read( in ) );
+                    }
+                    break;
+                case RUN_LENGTH:
+                    for ( int i = 0; i < counts.length; )
+                    {
+                        final int count = VarInt.read( in );
+                        final int runEnd = i + VarInt.read( in );
+                        if ( runEnd > counts.length )
+                        {
+                            throw new IOException( "Run overflows block of " + counts.length + " counts." );
+                        }
+                        while ( i < runEnd )
+                        {
+                            counts[ i++ ] = count;
+                        }
+                    }
+                    break;
+            }
+        }
+        
+        /**
+         * @return the index just past the run of counts equal to counts[ start ].
+         */
+        static private int runEnd( final int[] counts, final int start )
+        {
+            int end = start + 1;
+            while ( end < counts.length && counts[ end ] == counts[ start ] )
+            {
+                end++;
+            }
+            return end;
+        }
+        
+        /**
+         * @return the Encoding that writes counts in the fewest bytes.
+         */
+        static Encoding smallest( final int[] counts )
+        {
+            Encoding smallest = VARINT;
+            int smallestSize = VARINT.size( counts );
+            for ( Encoding encoding : values() )
+            {
+                final int size = encoding.size( counts );
+                if ( size < smallestSize )
+                {
+                    smallest = encoding;
+                    smallestSize = size;
+                }
+            }
+            return smallest;
+        }
+    }
     
-    public ResultValueMandelbrotSet( Integer[][] counts, int blockRow, int blockCol)
+    private int[] counts;
+    private int numPixels;
+    private int blockRow;
+    private int blockCol;
+    
+    /**
+     * For deserialization only.
+     */
+    public ResultValueMandelbrotSet() {}
+    
+    public ResultValueMandelbrotSet( int[] counts, int numPixels, int blockRow, int blockCol )
     {
+        assert counts.length == numPixels * numPixels;
         this.counts  = counts;
+        this.numPixels = numPixels;
         this.blockRow = blockRow;
         this.blockCol = blockCol;
     }
     
-    public Integer[][] counts() { return counts; }
+    public int[] counts() { return counts; }
+    public int numPixels() { return numPixels; }
     public int blockRow() { return blockRow; }
     public int blockCol() { return blockCol; }
+
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException 
+    {
+        out.writeInt( blockRow );
+        out.writeInt( blockCol );
+        out.writeInt( numPixels );
+        final Encoding encoding = Encoding.smallest( counts );
+        out.writeByte( encoding.ordinal() );
+        encoding.write( out, counts );
+    }
+
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException 
+    {
+        blockRow = in.readInt();
+        blockCol = in.readInt();
+        numPixels = in.readInt();
+        counts = new int[ numPixels * numPixels ];
+        Encoding.values()[ in.readUnsignedByte() ].read( in, counts );
+    }
 }
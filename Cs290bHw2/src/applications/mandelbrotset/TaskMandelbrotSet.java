@@ -23,21 +23,37 @@
  */
 package applications.mandelbrotset;
 import api.Task;
-import util.Complex;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
 
 /**
- *
+ * Compute the iteration counts of a block by Mariani-Silver border tracing:
+ * If every pixel on a rectangle's border has the same count, so does its 
+ * interior, which is filled without iterating; otherwise, the rectangle is
+ * split into quadrants, whose borders are traced in turn. 
+ * Rectangles whose edge is at most MIN_TRACED_SIZE pixels are computed outright.
  * @author Peter Cappello
  */
-public class TaskMandelbrotSet implements Task<ResultValueMandelbrotSet>
+public class TaskMandelbrotSet implements Task<ResultValueMandelbrotSet>, Externalizable
 {
-    final private double lowerLeftX;
-    final private double lowerLeftY;
-    final private double edgeLength;
-    final private int numPixels;
-    final private int iterationLimit;
-    final private int blockRow;
-    final private int blockCol;
+    private double lowerLeftX;
+    private double lowerLeftY;
+    private double edgeLength;
+    private int numPixels;
+    private int iterationLimit;
+    private int blockRow;
+    private int blockCol;
+    private Kernel kernel;
+    
+    static final public int MIN_TRACED_SIZE = 16;
+    
+    /**
+     * For deserialization only.
+     */
+    public TaskMandelbrotSet() {}
             
     /**
      *
@@ -54,6 +70,14 @@ public class TaskMandelbrotSet implements Task<ResultValueMandelbrotSet>
      * an approximation of the actual Mandelbrot set).
      */
     public TaskMandelbrotSet( double lowerLeftX, double lowerLeftY, double edgeLength, int numPixels, int iterationLimit, int blockRow, int blockCol )
+    {
+        this( lowerLeftX, lowerLeftY, edgeLength, numPixels, iterationLimit, blockRow, blockCol, Kernel.LANES );
+    }
+    
+    /**
+     * As above, with the Kernel that computes the iteration counts.
+     */
+    public TaskMandelbrotSet( double lowerLeftX, double lowerLeftY, double edgeLength, int numPixels, int iterationLimit, int blockRow, int blockCol, Kernel kernel )
     {
         this.lowerLeftX = lowerLeftX;
         this.lowerLeftY = lowerLeftY;
@@ -62,41 +86,130 @@ public class TaskMandelbrotSet implements Task<ResultValueMandelbrotSet>
         this.iterationLimit = iterationLimit;
         this.blockRow = blockRow;
         this.blockCol = blockCol;
+        this.kernel = kernel;
     }
     
     /**
      * 
-     * @return an Integer[row][col] array of iteration counts, where row and
+     * @return the iteration counts, in row-major order, where row and
      * col correspond to regions in the complex plane.
      */
     @Override
     public ResultValueMandelbrotSet call() 
     {
-        final Integer[][] counts = new Integer[numPixels][numPixels];
+        final int[] counts = new int[ numPixels * numPixels ];
         final double delta = edgeLength / numPixels;
-        for ( int row = 0; row < numPixels; row++ )
-            for ( int col = 0; col < numPixels; col++ )
+        compute( counts, delta, 0, 0, 1, numPixels );
+        compute( counts, delta, numPixels - 1, 0, 1, numPixels );
+        compute( counts, delta, 1, 0, numPixels - 2, 1 );
+        compute( counts, delta, 1, numPixels - 1, numPixels - 2, 1 );
+        trace( counts, delta, 0, 0, numPixels, numPixels );
+        return new ResultValueMandelbrotSet( counts, numPixels, blockRow, blockCol );
+    }
+    
+    /**
+     * Compute the interior counts of a rectangle whose border counts are computed.
+     */
+    private void trace( final int[] counts, final double delta, 
+                        final int fromRow, final int fromCol, final int numRows, final int numCols )
+    {
+        if ( numRows <= 2 || numCols <= 2 )
+        {
+            return; // no interior
+        }
+        final int lastRow = fromRow + numRows - 1, lastCol = fromCol + numCols - 1;
+        if ( isBorderUniform( counts, fromRow, fromCol, lastRow, lastCol ) )
+        {
+            final int count = counts[ fromRow * numPixels + fromCol ];
+            for ( int row = fromRow + 1; row < lastRow; row++ )
             {
-                final Complex c = new Complex( lowerLeftX + row * delta, lowerLeftY + col * delta );
-                counts[row][col] = getIterationCount( c );
+                Arrays.fill( counts, row * numPixels + fromCol + 1, row * numPixels + lastCol, count );
             }
-        return new ResultValueMandelbrotSet( counts, blockRow, blockCol );
+            return;
+        }
+        if ( numRows <= MIN_TRACED_SIZE || numCols <= MIN_TRACED_SIZE )
+        {
+            compute( counts, delta, fromRow + 1, fromCol + 1, numRows - 2, numCols - 2 );
+            return;
+        }
+        
+        // compute the lines that divide the rectangle into quadrants, then trace each quadrant.
+        final int midRow = fromRow + numRows / 2, midCol = fromCol + numCols / 2;
+        compute( counts, delta, midRow, fromCol + 1, 1, numCols - 2 );
+        compute( counts, delta, fromRow + 1, midCol, midRow - fromRow - 1, 1 );
+        compute( counts, delta, midRow + 1, midCol, lastRow - midRow - 1, 1 );
+        trace( counts, delta, fromRow, fromCol, midRow - fromRow + 1, midCol - fromCol + 1 );
+        trace( counts, delta, fromRow, midCol,  midRow - fromRow + 1, lastCol - midCol + 1 );
+        trace( counts, delta, midRow,  fromCol, lastRow - midRow + 1, midCol - fromCol + 1 );
+        trace( counts, delta, midRow,  midCol,  lastRow - midRow + 1, lastCol - midCol + 1 );
+    }
+    
+    private boolean isBorderUniform( final int[] counts, final int fromRow, final int fromCol, final int lastRow, final int lastCol )
+    {
+        final int count = counts[ fromRow * numPixels + fromCol ];
+        for ( int col = fromCol; col <= lastCol; col++ )
+        {
+            if ( counts[ fromRow * numPixels + col ] != count || counts[ lastRow * numPixels + col ] != count )
+            {
+                return false;
+            }
+        }
+        for ( int row = fromRow + 1; row < lastRow; row++ )
+        {
+            if ( counts[ row * numPixels + fromCol ] != count || counts[ row * numPixels + lastCol ] != count )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void compute( final int[] counts, final double delta, 
+                          final int fromRow, final int fromCol, final int numRows, final int numCols )
+    {
+        counts( lowerLeftX, lowerLeftY, delta, numPixels, iterationLimit, counts, fromRow, fromCol, numRows, numCols );
+    }
+    
+    /**
+     * Compute the counts of a rectangle of the block: by default, with the Kernel.
+     * The parameters are those of Kernel.counts.
+     */
+    void counts( double lowerLeftX, double lowerLeftY, double delta, int numPixels, int iterationLimit, int[] counts,
+                 int fromRow, int fromCol, int numRows, int numCols )
+    {
+        kernel.counts( lowerLeftX, lowerLeftY, delta, numPixels, iterationLimit, counts, fromRow, fromCol, numRows, numCols );
     }
     
     @Override
-    public String toString()
+    public void writeExternal( ObjectOutput out ) throws IOException 
     {
-        return String.format( "%s \n\t x: %e \n\t y: %e \n\t length: %e \n\t pixels: %d \n\t iteration limit: %d \n\t blockRow: %d \n\t blockCol: %d\n", 
-               getClass(), lowerLeftX, lowerLeftY, edgeLength, numPixels, iterationLimit, blockRow, blockCol );
+        out.writeDouble( lowerLeftX );
+        out.writeDouble( lowerLeftY );
+        out.writeDouble( edgeLength );
+        out.writeInt( numPixels );
+        out.writeInt( iterationLimit );
+        out.writeInt( blockRow );
+        out.writeInt( blockCol );
+        out.writeByte( kernel.ordinal() );
     }
     
-    private int getIterationCount( Complex c ) 
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException 
     {
-        int iteration = 0;
-        for ( Complex z = new Complex( c ); z.sizeSquared() <= 4.0 && iteration < iterationLimit; iteration++ ) 
-        {
-            z.square().add( c );
-        }
-        return iteration;
+        lowerLeftX = in.readDouble();
+        lowerLeftY = in.readDouble();
+        edgeLength = in.readDouble();
+        numPixels = in.readInt();
+        iterationLimit = in.readInt();
+        blockRow = in.readInt();
+        blockCol = in.readInt();
+        kernel = Kernel.values()[ in.readUnsignedByte() ];
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format( "%s \n\t x: %e \n\t y: %e \n\t length: %e \n\t pixels: %d \n\t iteration limit: %d \n\t blockRow: %d \n\t blockCol: %d \n\t kernel: %s\n", 
+               getClass(), lowerLeftX, lowerLeftY, edgeLength, numPixels, iterationLimit, blockRow, blockCol, kernel );
     }
 }
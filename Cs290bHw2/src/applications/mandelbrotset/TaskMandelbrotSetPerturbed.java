@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * A TaskMandelbrotSet for deep zooms, whose coordinates are offsets from a 
+ * reference point, given in decimal: Its pixels are computed as double 
+ * perturbations of the point's ReferenceOrbit, which stays accurate 
+ * long after the pixels' absolute coordinates exhaust double's precision.
+ * The orbit is not part of the Task: Each Computer computes it, once.
+ * @author Peter Cappello
+ */
+public class TaskMandelbrotSetPerturbed extends TaskMandelbrotSet
+{
+    private String centerX;
+    private String centerY;
+    private int precision;
+    
+    /**
+     * For deserialization only.
+     */
+    public TaskMandelbrotSetPerturbed() {}
+    
+    /**
+     * 
+     * @param centerX the real part of the reference point, as a decimal String.
+     * @param centerY the imaginary part of the reference point, as a decimal String.
+     * @param precision the number of significant digits with which the 
+     * reference orbit is computed.
+     * @param offsetX the x coordinate of the block's lower left corner, less centerX.
+     * @param offsetY the y coordinate of the block's lower left corner, less centerY.
+     * (See TaskMandelbrotSet for the other parameters.)
+     */
+    public TaskMandelbrotSetPerturbed( String centerX, String centerY, int precision, 
+            double offsetX, double offsetY, double edgeLength, int numPixels, int iterationLimit, int blockRow, int blockCol )
+    {
+        super( offsetX, offsetY, edgeLength, numPixels, iterationLimit, blockRow, blockCol, Kernel.SCALAR );
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.precision = precision;
+    }
+    
+    @Override
+    void counts( double offsetX, double offsetY, double delta, int numPixels, int iterationLimit, int[] counts,
+                 int fromRow, int fromCol, int numRows, int numCols )
+    {
+        final ReferenceOrbit orbit = ReferenceOrbit.of( centerX, centerY, precision, iterationLimit );
+        for ( int row = fromRow; row < fromRow + numRows; row++ )
+            for ( int col = fromCol; col < fromCol + numCols; col++ )
+            {
+                counts[ row * numPixels + col ] = orbit.iterationCount( offsetX + row * delta, offsetY + col * delta, iterationLimit );
+            }
+    }
+    
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException 
+    {
+        super.writeExternal( out );
+        out.writeUTF( centerX );
+        out.writeUTF( centerY );
+        out.writeInt( precision );
+    }
+    
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException 
+    {
+        super.readExternal( in );
+        centerX = in.readUTF();
+        centerY = in.readUTF();
+        precision = in.readInt();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return super.toString() + String.format( "\t center: %s, %s \n\t precision: %d\n", centerX, centerY, precision );
+    }
+}
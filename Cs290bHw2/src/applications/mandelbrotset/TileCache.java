@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package applications.mandelbrotset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded, least-recently-used cache of tiles: the iteration counts of 
+ * blocks on a MandelbrotSession's grid. 
+ * Optionally, it is backed by a directory: Every tile put is also written there, 
+ * in ResultValueMandelbrotSet's wire form, and a tile missing from memory is
+ * read from there, if present; so tiles outlive eviction and the session.
+ * @author Peter Cappello
+ */
+public class TileCache 
+{
+    /**
+     * A tile's identity: its zoom level, its position in that level's grid, 
+     * its edge length in pixels, and the iteration limit of its counts.
+     */
+    static public final class Key
+    {
+        final private int  level;
+        final private long tileX;
+        final private long tileY;
+        final private int  tileSize;
+        final private int  iterationLimit;
+        
+        public Key( int level, long tileX, long tileY, int tileSize, int iterationLimit )
+        {
+            this.level = level;
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.tileSize = tileSize;
+            this.iterationLimit = iterationLimit;
+        }
+        
+        @Override
+        public boolean equals( Object object )
+        {
+            if ( ! ( object instanceof Key ) )
+            {
+                return false;
+            }
+            final Key key = (Key) object;
+            return level == key.level && tileX == key.tileX && tileY == key.tileY 
+                && tileSize == key.tileSize && iterationLimit == key.iterationLimit;
+        }
+        
+        @Override
+        public int hashCode()
+        {
+            int hash = level;
+            hash = 31 * hash + Long.hashCode( tileX );
+            hash = 31 * hash + Long.hashCode( tileY );
+            hash = 31 * hash + tileSize;
+            return 31 * hash + iterationLimit;
+        }
+        
+        /**
+         * @return a String that is also the tile's file name.
+         */
+        @Override
+        public String toString()
+        {
+            return String.format( "L%d_%d_%d_%d_%d.tile", level, tileX, tileY, tileSize, iterationLimit );
+        }
+    }
+    
+    final private Map<Key, int[]> tiles;
+    final private File directory;
+    
+    /**
+     * A cache in memory only.
+     * @param capacity the maximum number of tiles held in memory.
+     */
+    public TileCache( int capacity ) { this( capacity, null ); }
+    
+    /**
+     * @param capacity the maximum number of tiles held in memory.
+     * @param directory the directory backing the cache; if null, there is none.
+     */
+    public TileCache( final int capacity, File directory )
+    {
+        tiles = new LinkedHashMap<Key, int[]>( 16, 0.75f, true ) 
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key, int[]> eldest ) { return size() > capacity; }
+        };
+        this.directory = directory;
+        if ( directory != null && ! directory.isDirectory() && ! directory.mkdirs() )
+        {
+            throw new IllegalArgumentException( "Cannot create tile directory " + directory );
+        }
+    }
+    
+    /**
+     * @param key the tile's Key.
+     * @return the tile's counts, in row-major order, or null if it is not cached.
+     */
+    synchronized public int[] get( Key key )
+    {
+        int[] counts = tiles.get( key );
+        if ( counts == null && directory != null )
+        {
+            final File file = new File( directory, key.toString() );
+            if ( file.isFile() )
+            {
+                try ( ObjectInputStream in = new ObjectInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) )
+                {
+                    counts = ( (ResultValueMandelbrotSet) in.readObject() ).counts();
+                    tiles.put( key, counts );
+                } 
+                catch ( IOException | ClassNotFoundException | ClassCastException exception ) 
+                {
+                    Logger.getLogger( getClass().getName() ).log( Level.WARNING, "Unreadable tile " + file, exception );
+                }
+            }
+        }
+        return counts;
+    }
+    
+    /**
+     * @param key the tile's Key.
+     * @param counts the tile's counts, in row-major order.
+     */
+    synchronized public void put( Key key, int[] counts )
+    {
+        tiles.put( key, counts );
+        if ( directory != null )
+        {
+            final File file = new File( directory, key.toString() );
+            try ( ObjectOutputStream out = new ObjectOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) ) )
+            {
+                out.writeObject( new ResultValueMandelbrotSet( counts, key.tileSize, 0, 0 ) );
+            } 
+            catch ( IOException exception ) 
+            {
+                Logger.getLogger( getClass().getName() ).log( Level.WARNING, "Unwritable tile " + file, exception );
+            }
+        }
+    }
+    
+    /**
+     * @return the number of tiles held in memory.
+     */
+    synchronized public int size() { return tiles.size(); }
+}
@@ -24,9 +24,11 @@
 package system;
 
 import api.Result;
+import api.Shared;
 import api.Task;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  *
@@ -36,5 +38,32 @@ public interface Computer extends Remote
 {    
     public <T> Result<T> execute( Task<T> task ) throws RemoteException;
     
+    /**
+     * Execute a batch of Tasks.
+     * @param taskList the Tasks to be executed.
+     * @return the corresponding Results, in the same order as taskList;
+     * that of a Task that threw is failed (see Result.isFailed).
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    public List<Result> executeAll( List<Task> taskList ) throws RemoteException;
+    
+    /**
+     * Answer the Space's periodic liveness check. 
+     * A Computer that is hung, or too slow to answer, is presumed dead.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    public void heartbeat() throws RemoteException;
+    
+    /**
+     * Update this Computer's copy of a shared value, if the value is better.
+     * @param name the name of the shared value.
+     * @param shared the value, broadcast by the Space.
+     * @throws RemoteException occurs if there is a communication problem or
+     * the remote service is not responding.
+     */
+    public void share( String name, Shared shared ) throws RemoteException;
+    
     public void exit() throws RemoteException;
 }
@@ -24,46 +24,179 @@
 package system;
 import api.*;
 import java.rmi.Naming;
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * An implementation of the Remote Computer interface.
+ * Tasks are executed by a pool of worker threads, one per processor by default,
+ * not by the RMI threads that deliver them.
+ * Once registered by register( Space ), it forwards improvements to 
+ * SharedValues proposed by its Tasks to the Space, on a thread of its own.
  * @author Peter Cappello
  */
 public class ComputerImpl extends UnicastRemoteObject implements Computer
 {
-    public int numTasks = 0;
+    final private AtomicInteger numTasks = new AtomicInteger();
+    final private int numWorkers;
+    final private ExecutorService workers;
+    final private ExecutorService sharing = Executors.newSingleThreadExecutor( runnable -> 
+    {
+        final Thread thread = new Thread( runnable, "Sharing" );
+        thread.setDaemon( true );
+        return thread;
+    } );
+    
+    public ComputerImpl() throws RemoteException 
+    { 
+        this( Runtime.getRuntime().availableProcessors() ); 
+    }
+    
+    /**
+     * 
+     * @param numWorkers the number of worker threads, i.e., the number of
+     * Tasks this Computer executes concurrently.
+     * @throws RemoteException 
+     */
+    public ComputerImpl( int numWorkers ) throws RemoteException 
+    {
+        assert numWorkers > 0;
+        this.numWorkers = numWorkers;
+        workers = Executors.newFixedThreadPool( numWorkers );
+    }
+    
+    /**
+     * The number of Tasks this Computer executes concurrently.
+     * It is reported to the Space when this Computer registers.
+     * @return the number of worker threads.
+     */
+    public int numWorkers() { return numWorkers; }
     
-    public ComputerImpl() throws RemoteException {}
+    /**
+     * Register with space, and forward to it the improvements to SharedValues 
+     * that Tasks executed in this JVM propose.
+     * @param space the Space.
+     * @throws RemoteException 
+     */
+    public void register( Space space ) throws RemoteException
+    {
+        SharedValue.forwardTo( ( name, shared ) -> sharing.execute( () -> 
+        {
+            try { space.share( name, shared ); }
+            catch ( RemoteException exception ) 
+            {
+                Logger.getLogger( this.getClass().getName() )
+                      .log( Level.WARNING, "Shared value not forwarded: {0}", exception.getMessage() );
+            }
+        } ) );
+        space.register( this, numWorkers );
+    }
             
     /**
      * Execute a Task.
      * @param <T> type of return value.
      * @param task to be executed.
-     * @return the return-value of the Task call method.
+     * @return the return-value of the Task call method; a failed Result if it threw.
      * @throws RemoteException
      */
     @Override
     public <T> Result<T> execute( Task<T> task ) throws RemoteException 
     { 
-        numTasks++;
+        return get( workers.submit( timed( task ) ) );
+    }
+    
+    /**
+     * Execute a batch of Tasks, concurrently, on the worker threads.
+     * @param taskList the Tasks to be executed.
+     * @return the Results, in the same order as taskList; 
+     * that of a Task that threw is failed: The Computer is not at fault.
+     * @throws RemoteException
+     */
+    @Override
+    public List<Result> executeAll( List<Task> taskList ) throws RemoteException 
+    {
+        final List<Future<Result>> futureList = new ArrayList<>( taskList.size() );
+        for ( Task task : taskList )
+        {
+            futureList.add( workers.submit( timed( task ) ) );
+        }
+        final List<Result> resultList = new ArrayList<>( taskList.size() );
+        for ( Future<Result> future : futureList )
+        {
+            resultList.add( get( future ) );
+        }
+        return resultList;
+    }
+    
+    private <T> Callable<Result> timed( Task<T> task )
+    {
+        return () -> 
+        {
+            numTasks.incrementAndGet();
+            return call( task );
+        };
+    }
+    
+    /**
+     * Call a Task, in the calling thread, timing it.
+     * @param <T> type of return value.
+     * @param task to be called.
+     * @return the Task's return value, with its run time.
+     */
+    static <T> Result<T> call( Task<T> task )
+    {
         final long startTime = System.nanoTime();
         final T value = task.call();
         final long runTime = ( System.nanoTime() - startTime ) / 1000000; // milliseconds
         return new Result<>( value, runTime );
     }
     
+    private static Result get( Future<Result> future ) throws RemoteException
+    {
+        try { return future.get(); }
+        catch ( ExecutionException exception ) 
+        {
+            Logger.getLogger( ComputerImpl.class.getCanonicalName() )
+                  .log( Level.WARNING, "Task failed.", exception.getCause() );
+            return Result.failed( exception.getCause(), 0 );
+        }
+        catch ( InterruptedException exception ) 
+        {
+            throw new RemoteException( "Computer interrupted.", exception );
+        }
+    }
+    
+    @Override
+    public void heartbeat() {}
+    
+    /**
+     * Update this JVM's copy of a shared value, broadcast by the Space.
+     * @param name the name of the shared value.
+     * @param shared the value.
+     */
+    @Override
+    public void share( String name, Shared shared ) { SharedValue.of( name ).update( shared ); }
+    
     public static void main( String[] args ) throws Exception
     {
         System.setSecurityManager( new SecurityManager() );
         final String domainName = "localhost";
         final String url = "rmi://" + domainName + ":" + Space.PORT + "/" + Space.SERVICE_NAME;
         final Space space = (Space) Naming.lookup( url );
-        space.register( new ComputerImpl() );
-        System.out.println( "Computer running." );
+        final ComputerImpl computer = new ComputerImpl();
+        computer.register( space );
+        System.out.println( "Computer running: " + computer.numWorkers() + " workers." );
     }
 
     /**
@@ -74,7 +207,20 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer
     public void exit() throws RemoteException 
     { 
         Logger.getLogger( this.getClass().getName() )
-              .log(Level.INFO, "Computer: on exit, # completed [0] tasks:", numTasks );
+              .log(Level.INFO, "Computer: on exit, # completed [0] tasks:", numTasks.get() );
+        workers.shutdownNow();
         System.exit( 0 );
     }
+    
+    /**
+     * Stop this Computer's threads and unexport it, without exiting the JVM: 
+     * for a Computer embedded in another program, e.g., a benchmark.
+     */
+    void shutdown()
+    {
+        workers.shutdownNow();
+        sharing.shutdownNow();
+        try { UnicastRemoteObject.unexportObject( this, true ); }
+        catch ( NoSuchObjectException ignore ) {}
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import api.Spawn;
+import api.Successor;
+import api.Task;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Spawn awaiting its children's values: Once the last arrives, 
+ * its Successor is ready to execute, as a Task whose value takes the place of 
+ * the spawning Task's: the value awaited in slot of parent, or, for a Task
+ * that has no parent, its job's Result.
+ * The run time of the whole computation accumulates here, so that the Result 
+ * reports the time spent on the spawning Task and all its descendants.
+ * <p>
+ * The Joins of a top-level Task's descendants form a tree: If any of its Tasks fails,
+ * the whole tree fails, once. Its top-level Task's failed Result is the only 
+ * Result delivered for it, and the rest of the tree's values are dropped.
+ * @author Peter Cappello
+ */
+final class Join 
+{
+    final Join parent;
+    final int slot;
+    final private Join root;
+    final private AtomicBoolean isFailed;
+    final private Successor successor;
+    final private Object[] values;
+    final private AtomicInteger numAwaited;
+    final private AtomicLong runTime;
+    
+    /**
+     * @param spawn the Spawn.
+     * @param parent the Join awaiting the spawning Task's value; null if none.
+     * @param slot the spawning Task's slot in parent.
+     * @param runTime the run time of the spawning Task.
+     */
+    Join( Spawn spawn, Join parent, int slot, long runTime )
+    {
+        this.parent = parent;
+        this.slot = slot;
+        this.root = parent == null ? this : parent.root;
+        this.isFailed = parent == null ? new AtomicBoolean() : null;
+        this.successor = spawn.successor();
+        this.values = new Object[ spawn.children().size() ];
+        this.numAwaited = new AtomicInteger( values.length );
+        this.runTime = new AtomicLong( runTime );
+    }
+    
+    /**
+     * @return true if there are no children to await.
+     */
+    boolean isReady() { return values.length == 0; }
+    
+    /**
+     * Accept the value of a child.
+     * @param slot the child's index among the Spawn's children.
+     * @param value its value.
+     * @param runTime its run time, including that of its descendants.
+     * @return true if it was the last value awaited: The Successor is ready.
+     */
+    boolean accept( int slot, Object value, long runTime )
+    {
+        values[ slot ] = value;
+        this.runTime.addAndGet( runTime );
+        return numAwaited.decrementAndGet() == 0;
+    }
+    
+    /**
+     * Mark this Join's tree failed.
+     * @return true if and only if it had not failed before: 
+     * Its top-level Task's failed Result is to be delivered only then.
+     */
+    boolean fail() { return root.isFailed.compareAndSet( false, true ); }
+    
+    /**
+     * @return true if a Task of this Join's tree has failed: 
+     * Its values are to be dropped.
+     */
+    boolean isFailed() { return root.isFailed.get(); }
+    
+    /**
+     * @return the run time of the spawning Task and its children, so far.
+     */
+    long runTime() { return runTime.get(); }
+    
+    /**
+     * @return the Successor, as a Task, applied to the children's values.
+     */
+    Task successorTask() { return new SuccessorTask( successor, Arrays.asList( values ) ); }
+    
+    static private final class SuccessorTask implements Task<Object>
+    {
+        private final Successor successor;
+        private final List<Object> values;
+        
+        SuccessorTask( Successor successor, List<Object> values )
+        {
+            this.successor = successor;
+            this.values = values;
+        }
+        
+        @Override
+        public Object call() { return successor.compose( values ); }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import api.Result;
+import api.ResultListener;
+import api.Shared;
+import api.SharedValue;
+import api.Spawn;
+import api.Space;
+import api.Task;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-process Space: Tasks are executed on a ForkJoinPool in the client's 
+ * JVM. Nothing is exported, and no Task or Result is serialized, 
+ * so a Job run on it measures its computation, not the framework.
+ * Jobs opened on it share its pool, first come, first served: 
+ * Their weights are ignored.
+ * Spawned Tasks and Successors are executed on the pool, too.
+ * A Task that throws is delivered as a failed Result of its top-level Task, 
+ * as a SpaceImpl delivers it.
+ * Computers registered with it are ignored.
+ * @author Peter Cappello
+ */
+public class LocalSpace implements Space
+{
+    final private ForkJoinPool pool;
+    final private boolean ownsPool;
+    final private BlockingQueue<Result> resultQ = new LinkedBlockingQueue<>();
+          private ResultListener listener;
+    volatile private boolean isOpen = true;
+    
+    public LocalSpace() { this( Runtime.getRuntime().availableProcessors() ); }
+    
+    /**
+     * 
+     * @param parallelism the number of Tasks executed concurrently.
+     */
+    public LocalSpace( int parallelism )
+    {
+        this( new ForkJoinPool( parallelism ), true );
+        Logger.getLogger( this.getClass().getName() )
+              .log( Level.INFO, "Local space started: parallelism: {0}.", parallelism );
+    }
+    
+    private LocalSpace( ForkJoinPool pool, boolean ownsPool )
+    {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+    
+    @Override
+    public void putAll( List<Task> taskList )
+    {
+        taskList.forEach( task -> execute( task, null, 0, 0 ) );
+    }
+    
+    /**
+     * Execute a Task on the pool, unless the job is closed, then spawn its children, 
+     * or pass its value to the Join that awaits it, or deliver its Result; 
+     * if the Task throws, deliver a failed Result for its top-level Task, 
+     * unless another Task of its tree already has failed.
+     * @param task the Task.
+     * @param parent the Join that awaits its value; null if the job does.
+     * @param slot the Task's slot in parent.
+     * @param priorRunTime the run time already spent on the Task's value.
+     */
+    private void execute( Task task, Join parent, int slot, long priorRunTime )
+    {
+        if ( ! isOpen )
+        {
+            return;
+        }
+        pool.execute( () -> 
+        {
+            if ( parent != null && parent.isFailed() )
+            {
+                return; // its top-level Task's failure has been delivered.
+            }
+            final Result result;
+            try { result = ComputerImpl.call( task ); }
+            catch ( RuntimeException | Error exception )
+            {
+                Logger.getLogger( LocalSpace.class.getName() ).log( Level.WARNING, "Task failed.", exception );
+                if ( parent == null || parent.fail() )
+                {
+                    deliver( Result.failed( exception, 0 ) );
+                }
+                return;
+            }
+            final Object value = result.getTaskReturnValue();
+            final long runTime = priorRunTime + result.getTaskRunTime();
+            if ( value instanceof Spawn )
+            {
+                final Spawn spawn = (Spawn) value;
+                final Join join = new Join( spawn, parent, slot, runTime );
+                if ( join.isReady() )
+                {
+                    execute( join.successorTask(), join.parent, join.slot, join.runTime() );
+                }
+                for ( int i = 0; i < spawn.children().size(); i++ )
+                {
+                    execute( spawn.children().get( i ), join, i, 0 );
+                }
+            }
+            else if ( parent == null )
+            {
+                deliver( priorRunTime == 0 ? result : new Result<>( value, runTime ) );
+            }
+            else if ( parent.accept( slot, value, runTime ) )
+            {
+                execute( parent.successorTask(), parent.parent, parent.slot, parent.runTime() );
+            }
+        } );
+    }
+
+    @Override
+    public Result take() 
+    {
+        try { return resultQ.take(); } 
+        catch ( InterruptedException exception ) 
+        {
+            Logger.getLogger( this.getClass().getName())
+                  .log(Level.INFO, null, exception);
+        }
+        assert false; // should never reach this point
+        return null;
+    }
+
+    @Override
+    public List<Result> take( int maxResults, long timeout ) 
+    {
+        final List<Result> resultList = new ArrayList<>();
+        try 
+        { 
+            final Result result = resultQ.poll( timeout, TimeUnit.MILLISECONDS );
+            if ( result != null )
+            {
+                resultList.add( result );
+                resultQ.drainTo( resultList, maxResults - 1 );
+            }
+        } 
+        catch ( InterruptedException exception ) 
+        {
+            Logger.getLogger( this.getClass().getName())
+                  .log(Level.INFO, null, exception);
+        }
+        return resultList;
+    }
+
+    /**
+     * Hand Results to listener, in the thread that produced them, 
+     * starting with any that are waiting to be taken.
+     * @param listener the ResultListener.
+     */
+    @Override
+    synchronized public void addResultListener( ResultListener listener )
+    {
+        this.listener = listener;
+        final List<Result> resultList = new ArrayList<>();
+        resultQ.drainTo( resultList );
+        if ( ! resultList.isEmpty() )
+        {
+            push( resultList );
+        }
+    }
+
+    @Override
+    synchronized public void removeResultListener( ResultListener listener )
+    {
+        if ( listener.equals( this.listener ) )
+        {
+            this.listener = null;
+        }
+    }
+
+    /**
+     * Tasks run in this JVM: They share its copy of the value.
+     * @param name the name of the shared value.
+     * @param shared the proposed value.
+     */
+    @Override
+    public void share( String name, Shared shared ) { SharedValue.of( name ).update( shared ); }
+
+    /**
+     * Open a job that shares this LocalSpace's pool.
+     * @param weight ignored.
+     * @return the job's handle: a LocalSpace of its own.
+     */
+    @Override
+    public Space newJob( int weight ) { return new LocalSpace( pool, false ); }
+
+    /**
+     * Stop the pool, discarding Tasks not yet executed; 
+     * or, if this is a job's handle, discard the job's results.
+     */
+    @Override
+    public void exit() 
+    {
+        isOpen = false;
+        if ( ownsPool )
+        {
+            Logger.getLogger( this.getClass().getName() )
+                  .log( Level.INFO, "Local space: on exit: {0} tasks discarded.", pool.shutdownNow().size() );
+        }
+    }
+
+    /**
+     * A LocalSpace has no remote Computers: Its pool is its only worker, 
+     * so the Computer is ignored.
+     */
+    @Override
+    public void register( Computer computer, int numWorkers )
+    {
+        Logger.getLogger( this.getClass().getName() )
+              .log( Level.INFO, "Local space: Computer ignored: Tasks are executed in process." );
+    }
+    
+    synchronized private void deliver( Result result )
+    {
+        if ( ! isOpen )
+        {
+            return;
+        }
+        if ( listener == null )
+        {
+            resultQ.add( result );
+        }
+        else
+        {
+            push( Collections.singletonList( result ) );
+        }
+    }
+    
+    private void push( List<Result> resultList )
+    {
+        try { listener.accept( resultList ); }
+        catch ( RemoteException exception )
+        {
+            listener = null;
+            resultQ.addAll( resultList );
+        }
+    }
+    
+    @Override
+    public String toString() 
+    {
+        return "LocalSpace{ " + "pool: " + pool + ", resultQ: " + resultQ + '}';
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A work-stealing scheduler: Each ComputerProxy owns a deque of Tasks. 
+ * New Tasks are dealt round-robin across the deques; a proxy takes from the 
+ * head of its own deque, and, when it is empty, steals half of the largest 
+ * deque's Tasks from its tail. Proxies contend only with their thieves,
+ * not with every other proxy, as they would on a single shared queue.
+ * @author Peter Cappello
+ */
+final class Scheduler 
+{
+    // holds Tasks while no deque exists
+    final private BlockingDeque<TaskEntry> unassigned = new LinkedBlockingDeque<>();
+    final private List<BlockingDeque<TaskEntry>> deques = new ArrayList<>();
+    final private ReadWriteLock dequesLock = new ReentrantReadWriteLock();
+    final private AtomicInteger nextDeque = new AtomicInteger();
+    final private AtomicLong numPuts = new AtomicLong();
+    final private AtomicInteger size = new AtomicInteger();
+    final private Object idle = new Object();
+    
+    /**
+     * Create a deque for a new ComputerProxy. 
+     * Tasks put while there were no deques are moved to it.
+     * @return the deque.
+     */
+    BlockingDeque<TaskEntry> newDeque()
+    {
+        final BlockingDeque<TaskEntry> deque = new LinkedBlockingDeque<>();
+        dequesLock.writeLock().lock();
+        try 
+        {
+            deques.add( deque );
+            unassigned.drainTo( deque );
+        }
+        finally { dequesLock.writeLock().unlock(); }
+        signal();
+        return deque;
+    }
+    
+    /**
+     * Remove the deque of an unregistered ComputerProxy, 
+     * dealing its Tasks to the remaining deques.
+     * @param deque the deque.
+     */
+    void removeDeque( BlockingDeque<TaskEntry> deque )
+    {
+        final List<TaskEntry> orphans = new ArrayList<>();
+        dequesLock.writeLock().lock();
+        try 
+        {
+            deques.remove( deque );
+            deque.drainTo( orphans );
+        }
+        finally { dequesLock.writeLock().unlock(); }
+        size.addAndGet( -orphans.size() );
+        putAll( orphans );
+    }
+    
+    /**
+     * Deal Tasks round-robin across the deques.
+     * @param taskEntries the Tasks.
+     */
+    void putAll( Collection<TaskEntry> taskEntries )
+    {
+        dequesLock.readLock().lock();
+        try 
+        {
+            for ( TaskEntry taskEntry : taskEntries )
+            {
+                final int numDeques = deques.size();
+                ( numDeques == 0 ? unassigned 
+                                 : deques.get( Math.floorMod( nextDeque.getAndIncrement(), numDeques ) ) )
+                        .addLast( taskEntry );
+            }
+        }
+        finally { dequesLock.readLock().unlock(); }
+        size.addAndGet( taskEntries.size() );
+        signal();
+    }
+    
+    /**
+     * Take a Task from the head of deque; if it is empty, steal;
+     * if there is nothing to steal, wait up to timeout milliseconds for Tasks
+     * to be put, and try once more.
+     * @param deque the taker's deque.
+     * @param timeout the maximum time to wait, in milliseconds.
+     * @return a Task, or null if none was found.
+     * @throws InterruptedException 
+     */
+    TaskEntry take( BlockingDeque<TaskEntry> deque, long timeout ) throws InterruptedException
+    {
+        final long seenPuts = numPuts.get();
+        TaskEntry taskEntry = takeOrSteal( deque );
+        if ( taskEntry != null )
+        {
+            return taskEntry;
+        }
+        synchronized ( idle )
+        {
+            if ( numPuts.get() == seenPuts )
+            {
+                idle.wait( timeout );
+            }
+        }
+        return takeOrSteal( deque );
+    }
+    
+    /**
+     * Move up to maxTasks Tasks from the head of deque to batch.
+     * @param deque the taker's deque.
+     * @param batch the batch.
+     * @param maxTasks the maximum number of Tasks moved.
+     * @return the number of Tasks moved.
+     */
+    int drainTo( BlockingDeque<TaskEntry> deque, List<TaskEntry> batch, int maxTasks )
+    {
+        final int numTasks = deque.drainTo( batch, maxTasks );
+        size.addAndGet( -numTasks );
+        return numTasks;
+    }
+    
+    /**
+     * @return the number of Tasks in all deques.
+     */
+    int size() { return size.get(); }
+    
+    private TaskEntry takeOrSteal( BlockingDeque<TaskEntry> deque )
+    {
+        TaskEntry taskEntry = deque.pollFirst();
+        if ( taskEntry == null )
+        {
+            taskEntry = steal( deque );
+        }
+        if ( taskEntry != null )
+        {
+            size.decrementAndGet();
+        }
+        return taskEntry;
+    }
+    
+    /**
+     * Move half the Tasks of the largest other deque, from its tail, 
+     * to the thief's deque, and take one of them.
+     * @param thief the thief's deque.
+     * @return a stolen Task, or null if all deques are empty, or the thief's deque was removed.
+     */
+    private TaskEntry steal( BlockingDeque<TaskEntry> thief )
+    {
+        dequesLock.readLock().lock();
+        try 
+        {
+            if ( ! deques.contains( thief ) )
+            {
+                return null; // the thief's Computer was unregistered: Its deque is no longer polled.
+            }
+            BlockingDeque<TaskEntry> victim = unassigned;
+            for ( BlockingDeque<TaskEntry> deque : deques )
+            {
+                if ( deque != thief && deque.size() > victim.size() )
+                {
+                    victim = deque;
+                }
+            }
+            final TaskEntry first = victim.pollLast();
+            if ( first == null )
+            {
+                return null;
+            }
+            for ( int i = victim.size() / 2; i > 0; i-- )
+            {
+                final TaskEntry taskEntry = victim.pollLast();
+                if ( taskEntry == null )
+                {
+                    break;
+                }
+                thief.addFirst( taskEntry );
+            }
+            return first;
+        }
+        finally { dequesLock.readLock().unlock(); }
+    }
+    
+    private void signal()
+    {
+        numPuts.incrementAndGet();
+        synchronized ( idle ) { idle.notifyAll(); }
+    }
+}
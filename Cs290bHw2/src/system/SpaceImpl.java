@@ -24,57 +24,227 @@
 package system;
 
 import api.Result;
+import api.ResultListener;
+import api.Shared;
+import api.Spawn;
 import api.Space;
 import api.Task;
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.server.UnicastRemoteObject;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- *
+ * The Space holds no global lock: Tasks are scheduled on per-Computer
+ * work-stealing deques, and the result queues are concurrent,
+ * so clients blocked in take do not delay putAll or register.
+ * <p>
+ * Several jobs may share the Space: Each has its own pending Tasks and 
+ * result queue. Tasks are released from the jobs into the scheduler only 
+ * as fast as the Computers can take them, each job in turn, by stride 
+ * scheduling: The job released next is the one with the least virtual 
+ * time, which advances by 1 / weight per Task released. Thus each job 
+ * gets a share of the Computers proportional to its weight.
+ * <p>
+ * A Monitor thread sends each Computer a heartbeat; one that fails to answer
+ * within HEARTBEAT_TIMEOUT is presumed dead, and its Tasks are requeued.
+ * A dispatcher that finds the task queue empty backs up the oldest straggler 
+ * outstanding on another Computer. A Task's first Result is kept; 
+ * duplicates are dropped.
+ * <p>
+ * The Space keeps the best value proposed for each Shared object, and 
+ * broadcasts each improvement to every Computer, asynchronously.
+ * <p>
+ * A Task that returns a Spawn has its children put into its job's pending 
+ * Tasks, and its Successor once their values are in: Only the value of a Task 
+ * the client put, composed by its descendants, if any, is delivered to the client.
  * @author peter
  */
 public class SpaceImpl extends UnicastRemoteObject implements Space
 {
-    private final BlockingQueue<Task>     taskQ = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Result> resultQ = new LinkedBlockingQueue<>();
-    private final Map<Computer,ComputerProxy> computerProxies = new HashMap<>();
-    private static int computerIds = 0;
+    /**
+     * Default maximum number of Tasks sent to a Computer in one executeAll call.
+     */
+    static final public int BATCH_SIZE = 4;
+    
+    /**
+     * Default maximum number of executeAll calls outstanding on a Computer,
+     * per worker thread of the Computer.
+     * While a worker executes one batch, the next is already queued there.
+     */
+    static final public int PIPELINE_DEPTH = 2;
+    
+    /**
+     * How long, in milliseconds, a ResultPusher waits for a Result before 
+     * checking whether it has been halted.
+     */
+    static final private long PUSH_POLL_TIME = 100;
+    
+    /**
+     * Milliseconds between heartbeats sent to each Computer.
+     */
+    static final public long HEARTBEAT_PERIOD = 1000;
+    
+    /**
+     * Milliseconds without an answered heartbeat after which a Computer 
+     * is presumed dead.
+     */
+    static final public long HEARTBEAT_TIMEOUT = 10 * HEARTBEAT_PERIOD;
     
-    public SpaceImpl() throws RemoteException 
+    /**
+     * A Task's deadline is this multiple of the mean Task completion time:
+     * Past it, the Task is a straggler, eligible for backup execution.
+     */
+    static final public int STRAGGLER_FACTOR = 3;
+    
+    /**
+     * The minimum deadline, in milliseconds, so that short Tasks are not 
+     * backed up merely for queueing behind each other.
+     */
+    static final public long MIN_DEADLINE = 1000;
+    
+    /**
+     * Milliseconds a dispatcher waits when there are no Tasks to take or steal 
+     * before looking for a straggler to back up.
+     */
+    static final private long IDLE_TIME = 100;
+    
+    private final Scheduler scheduler = new Scheduler();
+    private final Map<Computer,ComputerProxy> computerProxies = new ConcurrentHashMap<>();
+    private final Map<Integer,JobSpace> jobs = new ConcurrentHashMap<>();
+    private final Map<String,Shared> sharedValues = new ConcurrentHashMap<>();
+    private final JobSpace defaultJob;
+    private final ReentrantLock releaseLock = new ReentrantLock();
+    private final AtomicBoolean isReleaseRequested = new AtomicBoolean();
+    private final AtomicInteger capacity = new AtomicInteger();
+    private final ExecutorService heartbeats = Executors.newCachedThreadPool();
+    private final AtomicLong completionTimeTotal = new AtomicLong();
+    private final AtomicLong numCompleted = new AtomicLong();
+    private final AtomicLong numDuplicates = new AtomicLong();
+    private final int batchSize;
+    private final int pipelineDepth;
+    private double virtualTime; // guarded by releaseLock
+    private static final AtomicInteger computerIds = new AtomicInteger();
+    private static final AtomicInteger jobIds = new AtomicInteger();
+    
+    public SpaceImpl() throws RemoteException { this( BATCH_SIZE, PIPELINE_DEPTH ); }
+    
+    /**
+     * 
+     * @param batchSize maximum number of Tasks sent to a Computer in one call.
+     * @param pipelineDepth maximum number of batches in flight per Computer worker.
+     * @throws RemoteException 
+     */
+    public SpaceImpl( int batchSize, int pipelineDepth ) throws RemoteException 
     {
+        assert batchSize > 0 && pipelineDepth > 0;
+        this.batchSize = batchSize;
+        this.pipelineDepth = pipelineDepth;
+        defaultJob = new JobSpace( 1 );
         Logger.getLogger( this.getClass().getName() )
-              .log( Level.INFO, "Space started." );
+              .log( Level.INFO, "Space started: batch size: {0}, pipeline depth: {1}.", 
+                    new Object[]{ batchSize, pipelineDepth } );
+        final Thread monitor = new Thread( this::monitor, "Monitor" );
+        monitor.setDaemon( true );
+        monitor.start();
     }
     
+    /**
+     * Put Tasks into the default job: the one used by clients that do not 
+     * open a job of their own.
+     * @param taskList the Tasks.
+     */
+    @Override
+    public void putAll( List<Task> taskList ) { defaultJob.putAll( taskList ); }
+
+    /**
+     * Take a Result of the default job.
+     * @return a Result object.
+     */
+    @Override
+    public Result take() { return defaultJob.take(); }
+
+    /**
+     * Take up to maxResults Results of the default job, waiting up to
+     * timeout milliseconds for the first.
+     * @param maxResults the maximum number of Results returned.
+     * @param timeout the maximum time, in milliseconds, to wait for a Result.
+     * @return the Results taken; empty if none arrived before the timeout.
+     */
     @Override
-    synchronized public void putAll( List<Task> taskList )
+    public List<Result> take( int maxResults, long timeout ) 
     {
-        taskList.forEach( task -> taskQ.add( task ) );
+        return defaultJob.take( maxResults, timeout );
     }
 
     /**
-     * Take a Result from the Result queue.
-     * @return a Result object.
+     * Push Results of the default job to listener as they arrive.
+     * @param listener the remote ResultListener.
+     */
+    @Override
+    public void addResultListener( ResultListener listener )
+    {
+        defaultJob.addResultListener( listener );
+    }
+
+    /**
+     * Stop pushing Results of the default job to listener.
+     * @param listener the remote ResultListener.
      */
     @Override
-    synchronized public Result take() 
+    public void removeResultListener( ResultListener listener )
     {
-        try { return resultQ.take(); } 
-        catch ( InterruptedException exception ) 
+        defaultJob.removeResultListener( listener );
+    }
+    
+    /**
+     * Keep shared if it is better than the current value of name, 
+     * and broadcast it to the Computers.
+     * @param name the name of the shared value.
+     * @param shared the proposed value.
+     */
+    @Override
+    public void share( String name, Shared shared )
+    {
+        if ( sharedValues.merge( name, shared, ( current, proposed ) -> 
+                proposed.isBetterThan( current ) ? proposed : current ) == shared )
         {
-            Logger.getLogger( this.getClass().getName())
-                  .log(Level.INFO, null, exception);
+            computerProxies.values().forEach( proxy -> proxy.share( name, shared ) );
         }
-        assert false; // should never reach this point
-        return null;
+    }
+    
+    /**
+     * Open a job, and export its handle.
+     * @param weight the job's share of the Computers, relative to other jobs.
+     * @return a remote reference to the job's handle.
+     * @throws RemoteException 
+     */
+    @Override
+    public Space newJob( int weight ) throws RemoteException
+    {
+        return (Space) UnicastRemoteObject.exportObject( new JobSpace( weight ), 0 );
     }
 
     @Override
@@ -85,51 +255,541 @@ public class SpaceImpl extends UnicastRemoteObject implements Space
         computerProxies.values().forEach( proxy -> proxy.exit() );
         System.exit( 0 );
     }
+    
+    /**
+     * Stop this Space's threads, close its jobs, and unexport it, 
+     * without exiting the JVM: for a Space embedded in another program, 
+     * e.g., a benchmark. Its Computers are dropped, not exited.
+     */
+    void shutdown()
+    {
+        computerProxies.values().forEach( proxy -> proxy.kill() );
+        computerProxies.clear();
+        jobs.values().forEach( job -> job.exit() );
+        heartbeats.shutdownNow();
+        try { UnicastRemoteObject.unexportObject( this, true ); }
+        catch ( NoSuchObjectException ignore ) {}
+    }
 
     /**
      * Register Computer with Space.  
      * Will override existing key-value pair, if any.
      * @param computer - Remote reference to computer.
+     * @param numWorkers - the number of Tasks the computer executes concurrently.
      * @throws RemoteException
      */
     @Override
-    synchronized public void register( Computer computer ) throws RemoteException 
+    public void register( Computer computer, int numWorkers ) throws RemoteException 
     {
-        final ComputerProxy computerproxy = new ComputerProxy( computer );
+        final ComputerProxy computerproxy = new ComputerProxy( computer, numWorkers );
         computerProxies.put( computer, computerproxy );
+        capacity.addAndGet( computerproxy.capacity() );
+        sharedValues.forEach( computerproxy::share );
         computerproxy.start();
+        release();
         Logger.getLogger( this.getClass().getName() )
-              .log(Level.INFO, "Computer {0} started.", computerproxy.computerId );
+              .log(Level.INFO, "Computer {0} started: {1} workers.", 
+                   new Object[]{ computerproxy.computerId, numWorkers } );
     }
     
-    private void unregister( Task task, Computer computer )
+    /**
+     * Remove a failed Computer, returning every Task it had in flight, 
+     * from every batch, to the scheduler, unless it is obsolete, 
+     * together with the Tasks in its deque.
+     * @param computerProxy the proxy of the failed Computer.
+     */
+    private void unregister( ComputerProxy computerProxy )
     {
-        taskQ.add( task );
-        ComputerProxy computerProxy = computerProxies.remove( computer );
+        final List<TaskEntry> orphans = computerProxy.kill();
+        if ( orphans == null )
+        {
+            return; // this proxy already was unregistered.
+        }
+        orphans.removeIf( TaskEntry::isObsolete );
+        scheduler.removeDeque( computerProxy.deque );
+        scheduler.putAll( orphans );
+        computerProxies.remove( computerProxy.computer );
+        capacity.addAndGet( -computerProxy.capacity() );
+        release();
         Logger.getLogger( this.getClass().getName() )
-              .log( Level.WARNING, "Computer {0} failed.", computerProxy.computerId );
+              .log( Level.WARNING, "Computer {0} failed: {1} tasks requeued.", 
+                    new Object[]{ computerProxy.computerId, orphans.size() } );
+    }
+    
+    /**
+     * Release pending Tasks into the scheduler, by stride scheduling, 
+     * until it holds as many Tasks as the Computers can have in flight.
+     * If another thread is releasing, it does so on this thread's behalf.
+     */
+    private void release()
+    {
+        isReleaseRequested.set( true );
+        while ( isReleaseRequested.get() && releaseLock.tryLock() )
+        {
+            try 
+            {
+                isReleaseRequested.set( false );
+                while ( scheduler.size() < Math.max( capacity.get(), batchSize ) )
+                {
+                    JobSpace next = null;
+                    for ( JobSpace job : jobs.values() )
+                    {
+                        if ( job.hasPending() && ( next == null || job.pass < next.pass ) )
+                        {
+                            next = job;
+                        }
+                    }
+                    if ( next == null )
+                    {
+                        break;
+                    }
+                    final List<TaskEntry> released = next.release( batchSize );
+                    virtualTime = next.pass;
+                    next.pass += (double) released.size() / next.weight;
+                    scheduler.putAll( released );
+                }
+            }
+            finally { releaseLock.unlock(); }
+        }
+    }
+    
+    /**
+     * Every HEARTBEAT_PERIOD, send each Computer a heartbeat, 
+     * and unregister those that have not answered within HEARTBEAT_TIMEOUT.
+     */
+    private void monitor()
+    {
+        while ( true )
+        {
+            try { Thread.sleep( HEARTBEAT_PERIOD ); }
+            catch ( InterruptedException exception ) 
+            {
+                Logger.getLogger( this.getClass().getName())
+                      .log( Level.INFO, null, exception );
+            }
+            computerProxies.values().forEach( proxy -> proxy.heartbeat() );
+        }
+    }
+    
+    /**
+     * A Task is a straggler once it has been outstanding longer than its 
+     * deadline: STRAGGLER_FACTOR times the mean time to complete a Task, 
+     * but at least MIN_DEADLINE.
+     * @return the deadline, in milliseconds.
+     */
+    private long deadline()
+    {
+        final long n = numCompleted.get();
+        return n == 0 ? MIN_DEADLINE 
+                      : Math.max( MIN_DEADLINE, STRAGGLER_FACTOR * completionTimeTotal.get() / n );
+    }
+    
+    /**
+     * Claim a backup copy of the oldest straggler outstanding 
+     * on a Computer other than the idle one.
+     * @param idleProxy the proxy of the idle Computer.
+     * @return the straggler, or null if there is none.
+     */
+    private TaskEntry straggler( ComputerProxy idleProxy )
+    {
+        final long deadline = deadline();
+        TaskEntry oldest = null;
+        for ( ComputerProxy proxy : computerProxies.values() )
+        {
+            if ( proxy != idleProxy )
+            {
+                final TaskEntry candidate = proxy.oldest();
+                if ( candidate != null && ( oldest == null || candidate.elapsed() > oldest.elapsed() ) )
+                {
+                    oldest = candidate;
+                }
+            }
+        }
+        return oldest != null && oldest.elapsed() > deadline && oldest.backUp() ? oldest : null;
+    }
+    
+    /**
+     * Keep the first Result of a Task, in its job's result queue; 
+     * drop duplicates.
+     */
+    private void complete( TaskEntry taskEntry, Result result )
+    {
+        final long completionTime = taskEntry.elapsed();
+        if ( taskEntry.complete() )
+        {
+            completionTimeTotal.addAndGet( completionTime );
+            numCompleted.incrementAndGet();
+            taskEntry.job.complete( taskEntry, result );
+        }
+        else
+        {
+            Logger.getLogger( this.getClass().getName() )
+                  .log( Level.FINE, "Duplicate result dropped: {0} so far.", numDuplicates.incrementAndGet() );
+        }
     }
     
     public static void main( String[] args ) throws Exception
     {
         System.setSecurityManager( new SecurityManager() );
+        final SpaceImpl space = args.length < 2 
+                ? new SpaceImpl() 
+                : new SpaceImpl( Integer.parseInt( args[ 0 ] ), Integer.parseInt( args[ 1 ] ) );
         LocateRegistry.createRegistry( Space.PORT )
-                      .rebind( Space.SERVICE_NAME, new SpaceImpl() );
+                      .rebind( Space.SERVICE_NAME, space );
     }
     
     @Override
     public String toString() 
     {
-        return "SpaceImpl{ " + "taskQ: " + taskQ + ", resultQ: " + resultQ 
-                             + ", computerProxies: " + computerProxies + '}';
+        return "SpaceImpl{ " + "tasks: " + scheduler.size() + ", jobs: " + jobs.values() 
+                             + ", computerProxies: " + computerProxies 
+                             + ", duplicates dropped: " + numDuplicates + '}';
+    }
+    
+    /**
+     * A job: its pending Tasks, its result queue, and its ResultPusher.
+     * The default job is used by clients that do not open one; 
+     * the others are exported by newJob, as the jobs' handles.
+     */
+    class JobSpace implements Space
+    {
+        final private int id = jobIds.getAndIncrement();
+        final private int weight;
+        final private Queue<TaskEntry> pending = new ConcurrentLinkedQueue<>();
+        final private BlockingQueue<Result> resultQ = new LinkedBlockingQueue<>();
+        final private AtomicReference<ResultPusher> resultPusher = new AtomicReference<>();
+        final private Set<String> sharedNames = ConcurrentHashMap.newKeySet();
+        volatile private boolean isOpen = true;
+                 private double pass; // virtual time; guarded by releaseLock
+        
+        JobSpace( int weight )
+        {
+            this.weight = Math.max( 1, weight );
+            releaseLock.lock();
+            try { pass = virtualTime; } // a new job does not catch up on others' past
+            finally { releaseLock.unlock(); }
+            jobs.put( id, this );
+        }
+        
+        boolean isOpen() { return isOpen; }
+        
+        private boolean hasPending() { return ! pending.isEmpty(); }
+        
+        /**
+         * Remove up to maxTasks pending Tasks, for release into the scheduler.
+         */
+        private List<TaskEntry> release( int maxTasks )
+        {
+            final List<TaskEntry> released = new ArrayList<>( maxTasks );
+            for ( TaskEntry taskEntry = pending.poll(); taskEntry != null; taskEntry = pending.poll() ) 
+            {
+                released.add( taskEntry );
+                if ( released.size() == maxTasks )
+                {
+                    break;
+                }
+            }
+            return released;
+        }
+        
+        /**
+         * Spawn the Task's children, or pass its value to the Join that awaits it, 
+         * or deliver its Result.
+         * A failed Result is delivered in place of its top-level Task's, 
+         * so that the client's take returns it, rather than blocking forever;
+         * once a tree has failed, the rest of its Results are dropped.
+         */
+        private void complete( TaskEntry taskEntry, Result result )
+        {
+            if ( taskEntry.parent != null && taskEntry.parent.isFailed() )
+            {
+                return; // its top-level Task's failure has been delivered.
+            }
+            if ( result.isFailed() )
+            {
+                if ( taskEntry.parent == null || taskEntry.parent.fail() )
+                {
+                    deliver( result );
+                }
+                return;
+            }
+            final Object value = result.getTaskReturnValue();
+            final long runTime = taskEntry.priorRunTime + result.getTaskRunTime();
+            if ( value instanceof Spawn )
+            {
+                final Spawn spawn = (Spawn) value;
+                final Join join = new Join( spawn, taskEntry.parent, taskEntry.slot, runTime );
+                if ( join.isReady() )
+                {
+                    putAll( new TaskEntry( join.successorTask(), this, join.parent, join.slot, join.runTime() ) );
+                    return;
+                }
+                final List<TaskEntry> children = new ArrayList<>( spawn.children().size() );
+                for ( int i = 0; i < spawn.children().size(); i++ )
+                {
+                    children.add( new TaskEntry( spawn.children().get( i ), this, join, i, 0 ) );
+                }
+                putAll( children.toArray( new TaskEntry[ 0 ] ) );
+            }
+            else if ( taskEntry.parent == null )
+            {
+                deliver( taskEntry.priorRunTime == 0 ? result : new Result<>( value, runTime ) );
+            }
+            else if ( taskEntry.parent.accept( taskEntry.slot, value, runTime ) )
+            {
+                final Join join = taskEntry.parent;
+                putAll( new TaskEntry( join.successorTask(), this, join.parent, join.slot, join.runTime() ) );
+            }
+        }
+        
+        private void putAll( TaskEntry... taskEntries )
+        {
+            if ( isOpen )
+            {
+                pending.addAll( Arrays.asList( taskEntries ) );
+                SpaceImpl.this.release();
+            }
+        }
+        
+        private void deliver( Result result )
+        {
+            if ( isOpen )
+            {
+                resultQ.add( result );
+            }
+        }
+
+        /**
+         * Put Tasks into the job; on a closed job, they are ignored: 
+         * It has left jobs, so they would never be released.
+         */
+        @Override
+        public void putAll( List<Task> taskList )
+        {
+            if ( ! isOpen )
+            {
+                Logger.getLogger( this.getClass().getName() )
+                      .log( Level.WARNING, "Job {0} closed: {1} tasks ignored.", new Object[]{ id, taskList.size() } );
+                return;
+            }
+            taskList.forEach( task -> pending.add( new TaskEntry( task, this ) ) );
+            SpaceImpl.this.release();
+        }
+
+        @Override
+        public Result take() 
+        {
+            try { return resultQ.take(); } 
+            catch ( InterruptedException exception ) 
+            {
+                Logger.getLogger( this.getClass().getName())
+                      .log(Level.INFO, null, exception);
+            }
+            assert false; // should never reach this point
+            return null;
+        }
+
+        @Override
+        public List<Result> take( int maxResults, long timeout ) 
+        {
+            final List<Result> resultList = new ArrayList<>();
+            try 
+            { 
+                final Result result = resultQ.poll( timeout, TimeUnit.MILLISECONDS );
+                if ( result != null )
+                {
+                    resultList.add( result );
+                    resultQ.drainTo( resultList, maxResults - 1 );
+                }
+            } 
+            catch ( InterruptedException exception ) 
+            {
+                Logger.getLogger( this.getClass().getName())
+                      .log(Level.INFO, null, exception);
+            }
+            return resultList;
+        }
+
+        /**
+         * Push Results to listener as they arrive, instead of holding them for take.
+         * Replaces the current listener, if any.
+         * @param listener the remote ResultListener.
+         */
+        @Override
+        public void addResultListener( ResultListener listener )
+        {
+            final ResultPusher pusher = new ResultPusher( listener, this );
+            final ResultPusher previous = resultPusher.getAndSet( pusher );
+            if ( previous != null )
+            {
+                previous.halt();
+            }
+            pusher.start();
+        }
+
+        /**
+         * Stop pushing Results to listener. Returns after any push in progress 
+         * completes; subsequent Results are held for take.
+         * @param listener the remote ResultListener.
+         */
+        @Override
+        public void removeResultListener( ResultListener listener )
+        {
+            final ResultPusher pusher = resultPusher.get();
+            if ( pusher != null && pusher.listener.equals( listener ) 
+                                && resultPusher.compareAndSet( pusher, null ) )
+            {
+                pusher.halt();
+            }
+        }
+
+        /**
+         * Share a value of the Space, owned by this job: It is dropped when the job closes.
+         */
+        @Override
+        public void share( String name, Shared shared )
+        {
+            sharedNames.add( name );
+            SpaceImpl.this.share( name, shared );
+        }
+
+        @Override
+        public Space newJob( int weight ) throws RemoteException
+        {
+            return SpaceImpl.this.newJob( weight );
+        }
+
+        /**
+         * Close the job: Its pending Tasks are discarded, as are the Results 
+         * of its Tasks in flight, and the values it shared.
+         */
+        @Override
+        public void exit() 
+        {
+            isOpen = false;
+            jobs.remove( id );
+            pending.clear();
+            sharedNames.forEach( sharedValues::remove );
+            final ResultPusher pusher = resultPusher.getAndSet( null );
+            if ( pusher != null )
+            {
+                pusher.halt();
+            }
+            try { UnicastRemoteObject.unexportObject( this, true ); }
+            catch ( NoSuchObjectException ignore ) {} // the default job is not exported
+            Logger.getLogger( this.getClass().getName() )
+                  .log( Level.INFO, "Job {0} closed.", id );
+        }
+
+        @Override
+        public void register( Computer computer, int numWorkers ) throws RemoteException
+        {
+            SpaceImpl.this.register( computer, numWorkers );
+        }
+        
+        @Override
+        public String toString() 
+        {
+            return "Job{ id: " + id + ", weight: " + weight + ", pending: " + pending.size() 
+                               + ", results: " + resultQ.size() + '}';
+        }
+    }
+    
+    /**
+     * Pushes a job's Results to a ResultListener as soon as they arrive: 
+     * Each push carries every Result that accumulated during the previous push.
+     */
+    private class ResultPusher extends Thread
+    {
+        final private ResultListener listener;
+        final private JobSpace job;
+        volatile private boolean isPushing = true;
+        
+        ResultPusher( ResultListener listener, JobSpace job ) 
+        { 
+            this.listener = listener; 
+            this.job = job;
+        }
+        
+        void halt()
+        {
+            isPushing = false;
+            try { join(); }
+            catch ( InterruptedException exception ) 
+            {
+                Logger.getLogger( this.getClass().getName())
+                      .log( Level.INFO, null, exception );
+            }
+        }
+        
+        @Override
+        public void run()
+        {
+            while ( isPushing )
+            {
+                final List<Result> resultList = new ArrayList<>();
+                try 
+                {
+                    final Result result = job.resultQ.poll( PUSH_POLL_TIME, TimeUnit.MILLISECONDS );
+                    if ( result == null )
+                    {
+                        continue;
+                    }
+                    resultList.add( result );
+                    job.resultQ.drainTo( resultList );
+                    if ( ! isPushing )
+                    {
+                        job.resultQ.addAll( resultList );
+                        return;
+                    }
+                    listener.accept( resultList );
+                }
+                catch ( RemoteException exception )
+                {
+                    job.resultQ.addAll( resultList );
+                    job.resultPusher.compareAndSet( this, null );
+                    Logger.getLogger( this.getClass().getName() )
+                          .log( Level.WARNING, "ResultListener failed: {0} results returned to queue.", resultList.size() );
+                    return;
+                }
+                catch ( InterruptedException exception ) 
+                {
+                    Logger.getLogger( this.getClass().getName())
+                          .log( Level.INFO, null, exception );
+                }
+            }
+        }
     }
     
-    private class ComputerProxy extends Thread implements Computer 
+    /**
+     * Dispatches Tasks from its deque to its Computer in batches of up to batchSize Tasks,
+     * with up to pipelineDepth batches in flight per Computer worker, 
+     * one dispatcher Thread each.
+     * Every dispatched Task is held in inFlight until its Result arrives,
+     * so that it can be requeued if the Computer fails, 
+     * or backed up on another Computer if it straggles.
+     */
+    private class ComputerProxy implements Computer 
     {
         final private Computer computer;
-        final private int computerId = computerIds++;
+        final private int numWorkers;
+        final private int computerId = computerIds.getAndIncrement();
+        final private List<TaskEntry> inFlight = new LinkedList<>();
+        final private BlockingDeque<TaskEntry> deque = scheduler.newDeque();
+        volatile private boolean isAlive = true;
+        volatile private long heartbeatTime = System.nanoTime();
+        volatile private boolean isBeating;
 
-        ComputerProxy( Computer computer ) { this.computer = computer; }
+        ComputerProxy( Computer computer, int numWorkers ) 
+        { 
+            this.computer = computer; 
+            this.numWorkers = Math.max( 1, numWorkers );
+        }
+        
+        /**
+         * @return the number of Tasks this Computer can have in flight.
+         */
+        int capacity() { return numWorkers * pipelineDepth * batchSize; }
 
         @Override
         public Result execute( Task task ) throws RemoteException
@@ -137,27 +797,185 @@ public class SpaceImpl extends UnicastRemoteObject implements Space
             return computer.execute( task );
         }
         
+        @Override
+        public List<Result> executeAll( List<Task> taskList ) throws RemoteException
+        { 
+            return computer.executeAll( taskList );
+        }
+        
+        @Override
+        public void heartbeat() 
+        {
+            if ( ( System.nanoTime() - heartbeatTime ) / 1000000 > HEARTBEAT_TIMEOUT )
+            {
+                Logger.getLogger( this.getClass().getName() )
+                      .log( Level.WARNING, "Computer {0} unresponsive.", computerId );
+                unregister( this );
+                return;
+            }
+            if ( isBeating )
+            {
+                return; // the previous heartbeat is still unanswered.
+            }
+            isBeating = true;
+            heartbeats.execute( () -> 
+            {
+                try 
+                { 
+                    computer.heartbeat(); 
+                    heartbeatTime = System.nanoTime();
+                }
+                catch ( RemoteException ignore ) { unregister( this ); }
+                finally { isBeating = false; }
+            } );
+        }
+        
+        /**
+         * Send the Computer a shared value, without waiting for it: 
+         * A Computer that fails to take it fails its heartbeat, too.
+         */
+        @Override
+        public void share( String name, Shared shared ) 
+        {
+            heartbeats.execute( () -> 
+            {
+                try { computer.share( name, shared ); }
+                catch ( RemoteException ignore ) {}
+            } );
+        }
+        
         @Override
         public void exit() 
         { 
             try { computer.exit(); } 
             catch ( RemoteException ignore ) {} 
         }
+        
+        void start()
+        {
+            for ( int i = 0; i < numWorkers * pipelineDepth; i++ )
+            {
+                new Thread( this::dispatch, "ComputerProxy-" + computerId + "-" + i ).start();
+            }
+        }
+        
+        /**
+         * Record a batch as in flight.
+         * @return false if the Computer has failed: The batch must not be sent.
+         */
+        synchronized private boolean dispatched( List<TaskEntry> batch )
+        {
+            if ( isAlive )
+            {
+                inFlight.addAll( batch );
+                batch.forEach( TaskEntry::dispatched );
+            }
+            return isAlive;
+        }
+        
+        /**
+         * Record a batch as returned.
+         */
+        synchronized private void returned( List<TaskEntry> batch )
+        {
+            if ( isAlive )
+            {
+                batch.forEach( taskEntry -> 
+                {
+                    inFlight.remove( taskEntry );
+                    taskEntry.released();
+                } );
+            }
+        }
+        
+        /**
+         * @return the Task that has been in flight longest, among those that 
+         * are neither done nor backed up; null if there is none.
+         */
+        synchronized private TaskEntry oldest()
+        {
+            TaskEntry oldest = null;
+            for ( TaskEntry taskEntry : inFlight )
+            {
+                if ( ! taskEntry.isDone() && ! taskEntry.isBackedUp() 
+                        && ( oldest == null || taskEntry.elapsed() > oldest.elapsed() ) )
+                {
+                    oldest = taskEntry;
+                }
+            }
+            return oldest;
+        }
+        
+        /**
+         * Mark this proxy dead.
+         * @return the Tasks in flight, or null if this proxy already was dead.
+         */
+        synchronized private List<TaskEntry> kill()
+        {
+            if ( ! isAlive )
+            {
+                return null;
+            }
+            isAlive = false;
+            final List<TaskEntry> orphans = new ArrayList<>( inFlight );
+            orphans.forEach( TaskEntry::released );
+            inFlight.clear();
+            return orphans;
+        }
+        
+        /**
+         * Take a batch: from the deque, or stolen, if possible, 
+         * otherwise, once idle for IDLE_TIME, a straggler to back up.
+         * @return the batch, possibly empty.
+         */
+        private List<TaskEntry> batch() throws InterruptedException
+        {
+            release();
+            final List<TaskEntry> batch = new ArrayList<>( batchSize );
+            final TaskEntry taskEntry = scheduler.take( deque, IDLE_TIME );
+            if ( taskEntry == null )
+            {
+                final TaskEntry straggler = straggler( this );
+                if ( straggler != null )
+                {
+                    batch.add( straggler );
+                }
+                return batch;
+            }
+            batch.add( taskEntry );
+            scheduler.drainTo( deque, batch, batchSize - 1 );
+            batch.removeIf( TaskEntry::isObsolete ); // done by a backup since requeued, or job closed
+            return batch;
+        }
 
-        @Override
-        public void run() 
+        private void dispatch() 
         {
-            while ( true ) 
+            while ( isAlive ) // a dead proxy's dispatchers exit, even when idle
             {
-                Task task = null;
                 try 
                 { 
-                    task = taskQ.take();  
-                    resultQ.add( execute( task ) );
+                    final List<TaskEntry> batch = batch();
+                    if ( batch.isEmpty() )
+                    {
+                        continue;
+                    }
+                    if ( ! dispatched( batch ) )
+                    {
+                        scheduler.putAll( batch );
+                        return;
+                    }
+                    final List<Task> taskList = new ArrayList<>( batch.size() );
+                    batch.forEach( taskEntry -> taskList.add( taskEntry.task ) );
+                    final List<Result> resultList = executeAll( taskList );
+                    returned( batch );
+                    for ( int i = 0; i < batch.size(); i++ )
+                    {
+                        complete( batch.get( i ), resultList.get( i ) );
+                    }
                 }
                 catch ( RemoteException ignore )
                 {
-                    unregister( task, computer );
+                    unregister( this );
                     return;
                 } 
                 catch ( InterruptedException exception ) 
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package system;
+
+import api.Task;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Space's record of a Task: It may be executing on more than one 
+ * Computer at a time (a backup of a straggler, or a requeued Task whose 
+ * Computer was presumed dead), but only its first Result is kept.
+ * A spawned Task, or a Successor, has a parent: the Join that awaits its value.
+ * @author Peter Cappello
+ */
+final class TaskEntry 
+{
+    final Task task;
+    final SpaceImpl.JobSpace job;
+    final Join parent;
+    final int slot;
+    final long priorRunTime;
+    final private AtomicBoolean isDone = new AtomicBoolean();
+    final private AtomicBoolean isBackedUp = new AtomicBoolean();
+    final private AtomicInteger numCopies = new AtomicInteger();
+    volatile private long dispatchTime;
+    
+    TaskEntry( Task task, SpaceImpl.JobSpace job ) { this( task, job, null, 0, 0 ); }
+    
+    /**
+     * @param task the Task.
+     * @param job its job.
+     * @param parent the Join that awaits the Task's value; null if the job does.
+     * @param slot the Task's slot in parent.
+     * @param priorRunTime the run time already spent on the Task's value: 
+     * for a Successor, that of the Task that spawned, and of its children.
+     */
+    TaskEntry( Task task, SpaceImpl.JobSpace job, Join parent, int slot, long priorRunTime ) 
+    { 
+        this.task = task; 
+        this.job = job;
+        this.parent = parent;
+        this.slot = slot;
+        this.priorRunTime = priorRunTime;
+    }
+    
+    /**
+     * Record that a copy of the Task has been sent to a Computer.
+     */
+    void dispatched()
+    {
+        if ( numCopies.getAndIncrement() == 0 )
+        {
+            dispatchTime = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Record that a copy of the Task has returned, or has been abandoned.
+     */
+    void released() { numCopies.decrementAndGet(); }
+    
+    /**
+     * Mark the Task done.
+     * @return true if and only if this is the first Result for the Task: 
+     * Any other is a duplicate, and is to be dropped.
+     */
+    boolean complete() { return isDone.compareAndSet( false, true ); }
+    
+    boolean isDone() { return isDone.get(); }
+    
+    /**
+     * @return true if the Task need not be executed: It is done, 
+     * or its job has been closed, or another Task of its tree has failed.
+     */
+    boolean isObsolete() { return isDone() || ! job.isOpen() || ( parent != null && parent.isFailed() ); }
+    
+    /**
+     * Claim the right to execute a backup copy of the Task.
+     * @return true for the first claim only.
+     */
+    boolean backUp() { return isBackedUp.compareAndSet( false, true ); }
+    
+    boolean isBackedUp() { return isBackedUp.get(); }
+    
+    /**
+     * @return milliseconds since a copy of the Task was dispatched, 
+     * when none was outstanding.
+     */
+    long elapsed() { return ( System.nanoTime() - dispatchTime ) / 1000000; }
+}
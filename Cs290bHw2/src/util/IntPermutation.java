@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package util;
+
+import java.util.function.Consumer;
+
+/**
+ * Enumerate the permutations of an int array, in place, by Heap's algorithm: 
+ * Each permutation differs from the previous one by a single swap.
+ * Unlike Permutation, nothing is allocated per permutation: 
+ * The visitor is handed the array itself, which it must not modify, 
+ * and which holds the permutation only until the visitor returns.
+ * @author Peter Cappello
+ */
+final public class IntPermutation 
+{
+    private IntPermutation() {}
+    
+    /**
+     * Visit each of the n! permutations of elements, starting with elements as given. 
+     * On return, elements is in some permutation of its original order.
+     * @param elements the elements being permuted.
+     * @param visitor accepts elements, once per permutation.
+     */
+    static public void forEach( final int[] elements, final Consumer<int[]> visitor )
+    {
+        final int[] counts = new int[ elements.length ];
+        visitor.accept( elements );
+        for ( int i = 1; i < elements.length; )
+        {
+            if ( counts[ i ] < i )
+            {
+                swap( elements, ( i & 1 ) == 0 ? 0 : counts[ i ], i );
+                visitor.accept( elements );
+                counts[ i ]++;
+                i = 1;
+            }
+            else
+            {
+                counts[ i++ ] = 0;
+            }
+        }
+    }
+    
+    static private void swap( final int[] elements, final int i, final int j )
+    {
+        final int element = elements[ i ];
+        elements[ i ] = elements[ j ];
+        elements[ j ] = element;
+    }
+}
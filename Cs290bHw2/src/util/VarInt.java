@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 peter.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length encoding of non-negative ints: 7 bits per byte, 
+ * least significant group first; the high bit of each byte but the last is set.
+ * Values below 128 take 1 byte; below 16384, 2 bytes.
+ * Signed values of small magnitude are first mapped by zigZag.
+ * @author Peter Cappello
+ */
+final public class VarInt 
+{
+    private VarInt() {}
+    
+    /**
+     * Write a non-negative int.
+     * @param out the DataOutput.
+     * @param value the value, which must not be negative.
+     * @throws IOException 
+     */
+    static public void write( final DataOutput out, int value ) throws IOException
+    {
+        assert value >= 0;
+        while ( ( value & ~0x7F ) != 0 )
+        {
+            out.writeByte( ( value & 0x7F ) | 0x80 );
+            value >>>= 7;
+        }
+        out.writeByte( value );
+    }
+    
+    /**
+     * @param value a non-negative int.
+     * @return the number of bytes write uses for value.
+     */
+    static public int size( int value )
+    {
+        int size = 1;
+        while ( ( value & ~0x7F ) != 0 )
+        {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+    
+    /**
+     * Map a signed int to a non-negative one, so that ints of small magnitude,
+     * of either sign, have short encodings: 0, -1, 1, -2, ... map to 0, 1, 2, 3, ...
+     * @param value any int.
+     * @return its zigzag encoding.
+     */
+    static public int zigZag( final int value ) { return ( value << 1 ) ^ ( value >> 31 ); }
+    
+    /**
+     * @param value the zigzag encoding of an int.
+     * @return the int.
+     */
+    static public int unZigZag( final int value ) { return ( value >>> 1 ) ^ -( value & 1 ); }
+    
+    /**
+     * Read a non-negative int written by write.
+     * @param in the DataInput.
+     * @return the value.
+     * @throws IOException 
+     */
+    static public int read( final DataInput in ) throws IOException
+    {
+        int value = 0;
+        for ( int shift = 0; ; shift += 7 )
+        {
+            final byte b = in.readByte();
+            value |= ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+            {
+                return value;
+            }
+        }
+    }
+}